@@ -0,0 +1,152 @@
+package com.example.client;
+
+import com.example.model.client.DeploymentResponse;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Camunda engine access abstraction.
+ * All engine calls should be made through this interface so the transport can be selected per deployment
+ * with {@code camunda.client.mode}: {@code rest} (default, remote engine over HTTP) or {@code embedded}
+ * (the engine running in this JVM, accessed through its Java API).
+ * Both implementations return the same map shapes as the Camunda REST API.
+ */
+public interface CamundaClient {
+
+    /**
+     * Deploy BPMN process
+     */
+    void deployProcess(String deploymentName, File bpmnFile);
+
+    /**
+     * Start process instance
+     * @return Id of the started process instance
+     */
+    String startProcess(String processKey, Map<String, Object> variables);
+
+    /**
+     * Start several process instances of the same process
+     * @return One future per variable set, in order, completing with the id of the started process instance
+     */
+    List<CompletableFuture<String>> startProcesses(String processKey, List<Map<String, Object>> variableSets);
+
+    /**
+     * Complete a task
+     */
+    void completeTask(String taskId, Map<String, Object> variables);
+
+    /**
+     * Delete a process instance
+     */
+    void deleteProcessInstance(String processInstanceId, String deleteReason);
+
+    /**
+     * Delete a deployment
+     */
+    void deleteDeployment(String deploymentId, boolean cascade);
+
+    /**
+     * Get tasks by process instance ID
+     */
+    List<Map<String, Object>> getTasksByProcessInstanceId(String processInstanceId);
+
+    /**
+     * Get task details
+     */
+    Map<String, Object> getTask(String taskId);
+
+    /**
+     * Get process instance variables
+     * @return Variables in the REST shape: name -> {value, type, valueInfo}
+     */
+    Map<String, Object> getProcessVariables(String processInstanceId);
+
+    /**
+     * Unwraps variables in the REST shape returned by {@link #getProcessVariables} to plain values,
+     * the shape external tasks and mapped results use. Values that are not wrapped are kept as they are.
+     */
+    static Map<String, Object> plainValues(Map<String, Object> variables) {
+        Map<String, Object> values = new HashMap<>();
+        variables.forEach((name, value) -> {
+            if (value instanceof Map<?, ?> typed && typed.containsKey("value") && typed.containsKey("type")) {
+                values.put(name, typed.get("value"));
+            } else {
+                values.put(name, value);
+            }
+        });
+        return values;
+    }
+
+    /**
+     * Get list of deployments based on various filter criteria
+     */
+    List<DeploymentResponse> getDeployments(
+            String id,
+            String name,
+            String nameLike,
+            String source,
+            Boolean withoutSource,
+            String tenantIdIn,
+            Boolean withoutTenantId,
+            Boolean includeDeploymentsWithoutTenantId,
+            String after,
+            String before,
+            String sortBy,
+            String sortOrder,
+            Integer firstResult,
+            Integer maxResults
+    );
+
+    /**
+     * Get external tasks by process instance ID
+     */
+    List<Map<String, Object>> getExternalTasksByProcessInstanceId(String processInstanceId);
+
+    /**
+     * Get activity instances for a process instance
+     */
+    Map<String, Object> getActivityInstances(String processInstanceId);
+
+    /**
+     * Modify process instance execution state
+     * This can be used to control gateways by starting execution at specific activities
+     */
+    void modifyProcessInstance(String processInstanceId, List<Map<String, Object>> instructions);
+
+    /**
+     * Get BPMN model XML for a process definition
+     */
+    String getProcessDefinitionXml(String processDefinitionId);
+
+    /**
+     * Get active tasks (running tasks) from Camunda
+     * @param processInstanceId Optional process instance ID to filter by
+     * @return List of active tasks
+     */
+    List<Map<String, Object>> getActiveTasksHistory(String processInstanceId);
+
+    /**
+     * Get completed tasks history from Camunda
+     * @param processInstanceId Optional process instance ID to filter by
+     * @return List of completed tasks
+     */
+    List<Map<String, Object>> getCompletedTasksHistory(String processInstanceId);
+
+    /**
+     * Get the history of a single task, active or completed
+     * @param taskId Task ID
+     * @return Task history, or null if the task is unknown
+     */
+    Map<String, Object> getTaskHistory(String taskId);
+
+    /**
+     * Get completed external tasks history from Camunda
+     * @param processInstanceId Optional process instance ID to filter by
+     * @return List of completed external tasks
+     */
+    List<Map<String, Object>> getExternalTaskHistory(String processInstanceId);
+}
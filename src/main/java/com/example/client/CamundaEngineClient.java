@@ -0,0 +1,798 @@
+package com.example.client;
+
+import com.example.exception.ClientException;
+import com.example.model.client.DeploymentResponse;
+import com.example.util.JsonUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.ExternalTaskService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.externaltask.ExternalTask;
+import org.camunda.bpm.engine.history.HistoricExternalTaskLog;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.history.HistoricExternalTaskLogQuery;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstanceQuery;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.repository.DeploymentQuery;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.ActivityInstance;
+import org.camunda.bpm.engine.runtime.ProcessInstanceModificationBuilder;
+import org.camunda.bpm.engine.runtime.ProcessInstanceModificationInstantiationBuilder;
+import org.camunda.bpm.engine.runtime.TransitionInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.value.ObjectValue;
+import org.camunda.bpm.engine.variable.value.SerializableValue;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.camunda.spin.plugin.variable.SpinValues;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * In-process Camunda engine client.
+ * Used when the engine runs in this JVM ({@code camunda.client.mode=embedded}); calls go straight to the
+ * engine services instead of looping back through HTTP and JSON.
+ * Results are mapped to the same shapes the REST API returns, so callers can switch modes transparently.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "camunda.client.mode", havingValue = "embedded")
+public class CamundaEngineClient implements CamundaClient {
+
+    private final RuntimeService runtimeService;
+    private final TaskService taskService;
+    private final HistoryService historyService;
+    private final RepositoryService repositoryService;
+    private final ExternalTaskService externalTaskService;
+    private final ProcessEngine processEngine;
+    private final JsonUtils jsonUtils;
+
+    private static final String CLIENT_NAME = "CamundaEngineClient";
+
+    // Date format used by the Camunda REST API
+    private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSSZ";
+
+    /**
+     * Deploy BPMN process
+     */
+    @Override
+    public void deployProcess(String deploymentName, File bpmnFile) {
+        String operation = "deployProcess";
+        try (InputStream inputStream = new FileInputStream(bpmnFile)) {
+            repositoryService.createDeployment()
+                    .name(deploymentName)
+                    .source("rest-api")
+                    // same as enable-duplicate-filtering=true over REST: identical resources are not redeployed.
+                    // The argument is deploy-changed-only, which the REST client leaves at its default (false).
+                    .enableDuplicateFiltering(false)
+                    .addInputStream(bpmnFile.getName(), inputStream)
+                    .deploy();
+
+            log.info("Process deployed successfully: {}", deploymentName);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+        }
+    }
+
+    /**
+     * Start process instance
+     */
+    @Override
+    public String startProcess(String processKey, Map<String, Object> variables) {
+        String operation = "startProcess";
+        try {
+            return runtimeService.startProcessInstanceByKey(processKey, toEngineVariables(variables)).getId();
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Start process instances in a single transaction, resolving the latest process definition once.
+     * If the batch fails, the instances are started one by one so every failure is reported on its own.
+     */
+    @Override
+    public List<CompletableFuture<String>> startProcesses(String processKey, List<Map<String, Object>> variableSets) {
+        try {
+            ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
+                    .processDefinitionKey(processKey)
+                    .latestVersion()
+                    .singleResult();
+            if (processDefinition == null) {
+                throw new IllegalArgumentException("Process definition not found: " + processKey);
+            }
+
+            List<String> processInstanceIds = new ArrayList<>(variableSets.size());
+            executeInTransaction(() -> {
+                for (Map<String, Object> variables : variableSets) {
+                    processInstanceIds.add(runtimeService
+                            .startProcessInstanceById(processDefinition.getId(), toEngineVariables(variables))
+                            .getId());
+                }
+            });
+            return processInstanceIds.stream()
+                    .map(CompletableFuture::completedFuture)
+                    .collect(Collectors.toList());
+        } catch (Exception ex) {
+            log.warn("Starting {} instances of {} in one transaction failed, starting them one by one: {}",
+                    variableSets.size(), processKey, ex.getMessage());
+        }
+
+        List<CompletableFuture<String>> results = new ArrayList<>(variableSets.size());
+        for (Map<String, Object> variables : variableSets) {
+            try {
+                results.add(CompletableFuture.completedFuture(startProcess(processKey, variables)));
+            } catch (Exception ex) {
+                results.add(CompletableFuture.failedFuture(ex));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Complete a task
+     */
+    @Override
+    public void completeTask(String taskId, Map<String, Object> variables) {
+        String operation = "completeTask";
+        try {
+            taskService.complete(taskId, toEngineVariables(variables));
+        } catch (Exception ex) {
+            handleException(ex, operation);
+        }
+    }
+
+    /**
+     * Delete a process instance
+     */
+    @Override
+    public void deleteProcessInstance(String processInstanceId, String deleteReason) {
+        String operation = "deleteProcessInstance";
+        try {
+            runtimeService.deleteProcessInstance(processInstanceId, deleteReason, true, true, true);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+        }
+    }
+
+    /**
+     * Delete a deployment
+     */
+    @Override
+    public void deleteDeployment(String deploymentId, boolean cascade) {
+        String operation = "deleteDeployment";
+        try {
+            repositoryService.deleteDeployment(deploymentId, cascade);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+        }
+    }
+
+    /**
+     * Get tasks by process instance ID
+     */
+    @Override
+    public List<Map<String, Object>> getTasksByProcessInstanceId(String processInstanceId) {
+        String operation = "getTasksByProcessInstanceId";
+        try {
+            List<Map<String, Object>> tasks = new ArrayList<>();
+            for (Task task : taskService.createTaskQuery().processInstanceId(processInstanceId).list()) {
+                tasks.add(toTaskMap(task));
+            }
+            return tasks;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get task details
+     */
+    @Override
+    public Map<String, Object> getTask(String taskId) {
+        String operation = "getTask";
+        try {
+            Task task = taskService.createTaskQuery().taskId(taskId).singleResult();
+            if (task == null) {
+                throw new RuntimeException("Task details not retrieved: " + taskId);
+            }
+            return toTaskMap(task);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get process instance variables
+     */
+    @Override
+    public Map<String, Object> getProcessVariables(String processInstanceId) {
+        String operation = "getProcessVariables";
+        try {
+            VariableMap variables = runtimeService.getVariablesTyped(processInstanceId);
+
+            Map<String, Object> result = new HashMap<>();
+            for (String name : variables.keySet()) {
+                result.put(name, toVariableMap(variables.getValueTyped(name)));
+            }
+            return result;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get list of deployments based on various filter criteria
+     */
+    @Override
+    public List<DeploymentResponse> getDeployments(
+            String id,
+            String name,
+            String nameLike,
+            String source,
+            Boolean withoutSource,
+            String tenantIdIn,
+            Boolean withoutTenantId,
+            Boolean includeDeploymentsWithoutTenantId,
+            String after,
+            String before,
+            String sortBy,
+            String sortOrder,
+            Integer firstResult,
+            Integer maxResults
+    ) {
+        String operation = "getDeployments";
+        try {
+            DeploymentQuery query = repositoryService.createDeploymentQuery();
+            if (id != null) query.deploymentId(id);
+            if (name != null) query.deploymentName(name);
+            if (nameLike != null) query.deploymentNameLike(nameLike);
+            if (source != null) query.deploymentSource(source);
+            if (Boolean.TRUE.equals(withoutSource)) query.deploymentSource(null);
+            if (tenantIdIn != null) query.tenantIdIn(tenantIdIn.split(","));
+            if (Boolean.TRUE.equals(withoutTenantId)) query.withoutTenantId();
+            if (Boolean.TRUE.equals(includeDeploymentsWithoutTenantId)) query.includeDeploymentsWithoutTenantId();
+            if (after != null) query.deploymentAfter(parseDate(after));
+            if (before != null) query.deploymentBefore(parseDate(before));
+
+            if (sortBy != null) {
+                switch (sortBy) {
+                    case "id" -> query.orderByDeploymentId();
+                    case "name" -> query.orderByDeploymentName();
+                    case "deploymentTime" -> query.orderByDeploymentTime();
+                    case "tenantId" -> query.orderByTenantId();
+                    default -> throw new IllegalArgumentException("Unsupported sortBy value: " + sortBy);
+                }
+                if ("desc".equalsIgnoreCase(sortOrder)) {
+                    query.desc();
+                } else {
+                    query.asc();
+                }
+            }
+
+            List<Deployment> deployments = firstResult != null || maxResults != null
+                    ? query.listPage(firstResult != null ? firstResult : 0,
+                                     maxResults != null ? maxResults : Integer.MAX_VALUE)
+                    : query.list();
+
+            return deployments.stream()
+                    .map(this::toDeploymentResponse)
+                    .toList();
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get external tasks by process instance ID
+     */
+    @Override
+    public List<Map<String, Object>> getExternalTasksByProcessInstanceId(String processInstanceId) {
+        String operation = "getExternalTasksByProcessInstanceId";
+        try {
+            List<Map<String, Object>> externalTasks = new ArrayList<>();
+            for (ExternalTask externalTask : externalTaskService.createExternalTaskQuery()
+                    .processInstanceId(processInstanceId).list()) {
+                externalTasks.add(toExternalTaskMap(externalTask));
+            }
+            return externalTasks;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get activity instances for a process instance
+     */
+    @Override
+    public Map<String, Object> getActivityInstances(String processInstanceId) {
+        String operation = "getActivityInstances";
+        try {
+            ActivityInstance activityInstance = runtimeService.getActivityInstance(processInstanceId);
+            if (activityInstance == null) {
+                throw new RuntimeException("Activity instances not retrieved: " + processInstanceId);
+            }
+            return toActivityInstanceMap(activityInstance);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Modify process instance execution state
+     * Accepts the same instruction format as the REST modification endpoint
+     */
+    @Override
+    public void modifyProcessInstance(String processInstanceId, List<Map<String, Object>> instructions) {
+        String operation = "modifyProcessInstance";
+        try {
+            ProcessInstanceModificationBuilder modification =
+                    runtimeService.createProcessInstanceModification(processInstanceId);
+
+            for (Map<String, Object> instruction : instructions) {
+                String type = (String) instruction.get("type");
+                String activityId = (String) instruction.get("activityId");
+
+                switch (type) {
+                    case "startBeforeActivity" ->
+                            modification = applyInstructionVariables(modification.startBeforeActivity(activityId), instruction);
+                    case "startAfterActivity" ->
+                            modification = applyInstructionVariables(modification.startAfterActivity(activityId), instruction);
+                    case "startTransition" ->
+                            modification = applyInstructionVariables(
+                                    modification.startTransition((String) instruction.get("transitionId")), instruction);
+                    case "cancel" -> {
+                        if (instruction.get("activityInstanceId") != null) {
+                            modification = modification.cancelActivityInstance((String) instruction.get("activityInstanceId"));
+                        } else if (instruction.get("transitionInstanceId") != null) {
+                            modification = modification.cancelTransitionInstance((String) instruction.get("transitionInstanceId"));
+                        } else {
+                            modification = modification.cancelAllForActivity(activityId);
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported modification instruction type: " + type);
+                }
+            }
+
+            modification.execute(true, true);
+
+            log.info("Successfully modified process instance: {}", processInstanceId);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+        }
+    }
+
+    /**
+     * Get BPMN model XML for a process definition
+     */
+    @Override
+    public String getProcessDefinitionXml(String processDefinitionId) {
+        String operation = "getProcessDefinitionXml";
+        try (InputStream inputStream = repositoryService.getProcessModel(processDefinitionId)) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get active tasks (running tasks) from Camunda
+     * @param processInstanceId Optional process instance ID to filter by
+     * @return List of active tasks
+     */
+    @Override
+    public List<Map<String, Object>> getActiveTasksHistory(String processInstanceId) {
+        String operation = "getActiveTasksHistory";
+        try {
+            HistoricTaskInstanceQuery query = historyService.createHistoricTaskInstanceQuery().unfinished();
+            if (processInstanceId != null) {
+                query.processInstanceId(processInstanceId);
+            }
+
+            List<Map<String, Object>> tasks = new ArrayList<>();
+            for (HistoricTaskInstance task : query.list()) {
+                tasks.add(toHistoricTaskMap(task));
+            }
+            return tasks;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get completed tasks history from Camunda
+     * @param processInstanceId Optional process instance ID to filter by
+     * @return List of completed tasks
+     */
+    @Override
+    public List<Map<String, Object>> getCompletedTasksHistory(String processInstanceId) {
+        String operation = "getCompletedTasksHistory";
+        try {
+            HistoricTaskInstanceQuery query = historyService.createHistoricTaskInstanceQuery().finished();
+            if (processInstanceId != null) {
+                query.processInstanceId(processInstanceId);
+            }
+            query.orderByHistoricTaskInstanceEndTime().desc();
+
+            List<Map<String, Object>> tasks = new ArrayList<>();
+            for (HistoricTaskInstance task : query.list()) {
+                tasks.add(toHistoricTaskMap(task));
+            }
+            return tasks;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get the history of a single task, active or completed
+     * @param taskId Task ID
+     * @return Task history, or null if the task is unknown
+     */
+    @Override
+    public Map<String, Object> getTaskHistory(String taskId) {
+        String operation = "getTaskHistory";
+        try {
+            HistoricTaskInstance task = historyService.createHistoricTaskInstanceQuery()
+                    .taskId(taskId)
+                    .singleResult();
+            return task != null ? toHistoricTaskMap(task) : null;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Get completed external tasks history from Camunda
+     * @param processInstanceId Optional process instance ID to filter by
+     * @return List of completed external tasks
+     */
+    @Override
+    public List<Map<String, Object>> getExternalTaskHistory(String processInstanceId) {
+        String operation = "getExternalTaskHistory";
+        try {
+            HistoricExternalTaskLogQuery query = historyService.createHistoricExternalTaskLogQuery().successLog();
+            if (processInstanceId != null) {
+                query.processInstanceId(processInstanceId);
+            }
+            query.orderByTimestamp().desc();
+
+            List<Map<String, Object>> logs = new ArrayList<>();
+            for (HistoricExternalTaskLog taskLog : query.list()) {
+                logs.add(toExternalTaskLogMap(taskLog));
+            }
+            return logs;
+        } catch (Exception ex) {
+            handleException(ex, operation);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
+    /**
+     * Complete a locked external task
+     */
+    public void completeExternalTask(String externalTaskId, String workerId, Map<String, Object> variables,
+                                     Map<String, Object> localVariables) {
+        externalTaskService.complete(externalTaskId, workerId, toEngineVariables(variables), toEngineVariables(localVariables));
+    }
+
+    /**
+     * Report the failure of a locked external task
+     */
+    public void handleExternalTaskFailure(String externalTaskId, String workerId, String errorMessage,
+                                          String errorDetails, int retries, long retryTimeout) {
+        externalTaskService.handleFailure(externalTaskId, workerId, errorMessage, errorDetails, retries, retryTimeout);
+    }
+
+    /**
+     * Run several engine calls in one command context, so they share a single transaction and flush.
+     * If any call fails, all of them are rolled back.
+     */
+    public void executeInTransaction(Runnable work) {
+        ((ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration())
+                .getCommandExecutorTxRequired()
+                .execute(commandContext -> {
+                    work.run();
+                    return null;
+                });
+    }
+
+    /**
+     * Convert plain variables to engine values.
+     * Maps and lists are stored as JSON, mirroring the "Json" type used by the REST client.
+     */
+    private Map<String, Object> toEngineVariables(Map<String, Object> variables) {
+        Map<String, Object> engineVariables = new HashMap<>();
+        if (variables != null) {
+            variables.forEach((key, value) -> engineVariables.put(key, toEngineValue(value)));
+        }
+        return engineVariables;
+    }
+
+    /**
+     * Convert a single variable value to an engine value
+     */
+    private Object toEngineValue(Object value) {
+        if (value == null
+                || value instanceof String
+                || value instanceof Integer
+                || value instanceof Long
+                || value instanceof Double
+                || value instanceof Boolean) {
+            return value;
+        }
+        if (value instanceof Map || value instanceof List) {
+            return SpinValues.jsonValue(jsonUtils.toJson(value)).create();
+        }
+        return value.toString(); // default type
+    }
+
+    /**
+     * Apply the variables of a REST modification instruction to an instantiation builder
+     */
+    @SuppressWarnings("unchecked")
+    private ProcessInstanceModificationBuilder applyInstructionVariables(
+            ProcessInstanceModificationInstantiationBuilder builder, Map<String, Object> instruction) {
+        Map<String, Object> variables = (Map<String, Object>) instruction.get("variables");
+        if (variables != null) {
+            variables.forEach((name, variable) -> {
+                Object value = variable;
+                boolean local = false;
+                if (variable instanceof Map) {
+                    Map<String, Object> variableInfo = (Map<String, Object>) variable;
+                    value = variableInfo.get("value");
+                    local = Boolean.TRUE.equals(variableInfo.get("local"));
+                }
+
+                if (local) {
+                    builder.setVariableLocal(name, toEngineValue(value));
+                } else {
+                    builder.setVariable(name, toEngineValue(value));
+                }
+            });
+        }
+        return builder;
+    }
+
+    /**
+     * Convert a typed value to the REST variable format ({value, type, valueInfo})
+     */
+    private Map<String, Object> toVariableMap(TypedValue typedValue) {
+        Map<String, Object> variableInfo = new HashMap<>();
+
+        Object value = typedValue.getValue();
+        Map<String, Object> valueInfo = new HashMap<>();
+        if (typedValue instanceof SerializableValue serializableValue && !(typedValue instanceof ObjectValue)) {
+            // Spin values (JSON/XML) are returned in their serialized form like the REST API does
+            value = serializableValue.getValueSerialized();
+        } else if (typedValue instanceof ObjectValue objectValue) {
+            valueInfo.put("objectTypeName", objectValue.getObjectTypeName());
+            valueInfo.put("serializationDataFormat", objectValue.getSerializationDataFormat());
+        }
+
+        variableInfo.put("value", value);
+        variableInfo.put("type", typeName(typedValue));
+        variableInfo.put("valueInfo", valueInfo);
+        return variableInfo;
+    }
+
+    /**
+     * REST type name of a typed value (e.g. "string" -> "String")
+     */
+    private String typeName(TypedValue typedValue) {
+        if (typedValue.getType() == null) {
+            return "Null";
+        }
+        String name = typedValue.getType().getName();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private Map<String, Object> toTaskMap(Task task) {
+        Map<String, Object> taskMap = new HashMap<>();
+        taskMap.put("id", task.getId());
+        taskMap.put("name", task.getName());
+        taskMap.put("assignee", task.getAssignee());
+        taskMap.put("owner", task.getOwner());
+        taskMap.put("created", formatDate(task.getCreateTime()));
+        taskMap.put("due", formatDate(task.getDueDate()));
+        taskMap.put("followUp", formatDate(task.getFollowUpDate()));
+        taskMap.put("delegationState", task.getDelegationState() != null ? task.getDelegationState().toString() : null);
+        taskMap.put("description", task.getDescription());
+        taskMap.put("executionId", task.getExecutionId());
+        taskMap.put("parentTaskId", task.getParentTaskId());
+        taskMap.put("priority", task.getPriority());
+        taskMap.put("processDefinitionId", task.getProcessDefinitionId());
+        taskMap.put("processInstanceId", task.getProcessInstanceId());
+        taskMap.put("taskDefinitionKey", task.getTaskDefinitionKey());
+        taskMap.put("caseExecutionId", task.getCaseExecutionId());
+        taskMap.put("caseInstanceId", task.getCaseInstanceId());
+        taskMap.put("caseDefinitionId", task.getCaseDefinitionId());
+        taskMap.put("suspended", task.isSuspended());
+        taskMap.put("tenantId", task.getTenantId());
+        return taskMap;
+    }
+
+    private Map<String, Object> toHistoricTaskMap(HistoricTaskInstance task) {
+        Map<String, Object> taskMap = new HashMap<>();
+        taskMap.put("id", task.getId());
+        taskMap.put("processDefinitionKey", task.getProcessDefinitionKey());
+        taskMap.put("processDefinitionId", task.getProcessDefinitionId());
+        taskMap.put("processInstanceId", task.getProcessInstanceId());
+        taskMap.put("executionId", task.getExecutionId());
+        taskMap.put("activityInstanceId", task.getActivityInstanceId());
+        taskMap.put("name", task.getName());
+        taskMap.put("description", task.getDescription());
+        taskMap.put("deleteReason", task.getDeleteReason());
+        taskMap.put("owner", task.getOwner());
+        taskMap.put("assignee", task.getAssignee());
+        taskMap.put("startTime", formatDate(task.getStartTime()));
+        taskMap.put("endTime", formatDate(task.getEndTime()));
+        taskMap.put("duration", task.getDurationInMillis());
+        taskMap.put("taskDefinitionKey", task.getTaskDefinitionKey());
+        taskMap.put("priority", task.getPriority());
+        taskMap.put("due", formatDate(task.getDueDate()));
+        taskMap.put("parentTaskId", task.getParentTaskId());
+        taskMap.put("followUp", formatDate(task.getFollowUpDate()));
+        taskMap.put("tenantId", task.getTenantId());
+        taskMap.put("removalTime", formatDate(task.getRemovalTime()));
+        taskMap.put("rootProcessInstanceId", task.getRootProcessInstanceId());
+        return taskMap;
+    }
+
+    private Map<String, Object> toExternalTaskMap(ExternalTask externalTask) {
+        Map<String, Object> taskMap = new HashMap<>();
+        taskMap.put("id", externalTask.getId());
+        taskMap.put("topicName", externalTask.getTopicName());
+        taskMap.put("workerId", externalTask.getWorkerId());
+        taskMap.put("lockExpirationTime", formatDate(externalTask.getLockExpirationTime()));
+        taskMap.put("processInstanceId", externalTask.getProcessInstanceId());
+        taskMap.put("executionId", externalTask.getExecutionId());
+        taskMap.put("activityId", externalTask.getActivityId());
+        taskMap.put("activityInstanceId", externalTask.getActivityInstanceId());
+        taskMap.put("processDefinitionId", externalTask.getProcessDefinitionId());
+        taskMap.put("processDefinitionKey", externalTask.getProcessDefinitionKey());
+        taskMap.put("retries", externalTask.getRetries());
+        taskMap.put("errorMessage", externalTask.getErrorMessage());
+        taskMap.put("suspended", externalTask.isSuspended());
+        taskMap.put("tenantId", externalTask.getTenantId());
+        taskMap.put("priority", externalTask.getPriority());
+        taskMap.put("businessKey", externalTask.getBusinessKey());
+        return taskMap;
+    }
+
+    private Map<String, Object> toExternalTaskLogMap(HistoricExternalTaskLog taskLog) {
+        Map<String, Object> logMap = new HashMap<>();
+        logMap.put("id", taskLog.getId());
+        logMap.put("timestamp", formatDate(taskLog.getTimestamp()));
+        logMap.put("externalTaskId", taskLog.getExternalTaskId());
+        logMap.put("topicName", taskLog.getTopicName());
+        logMap.put("workerId", taskLog.getWorkerId());
+        logMap.put("priority", taskLog.getPriority());
+        logMap.put("retries", taskLog.getRetries());
+        logMap.put("errorMessage", taskLog.getErrorMessage());
+        logMap.put("activityId", taskLog.getActivityId());
+        logMap.put("activityInstanceId", taskLog.getActivityInstanceId());
+        logMap.put("executionId", taskLog.getExecutionId());
+        logMap.put("processInstanceId", taskLog.getProcessInstanceId());
+        logMap.put("processDefinitionId", taskLog.getProcessDefinitionId());
+        logMap.put("processDefinitionKey", taskLog.getProcessDefinitionKey());
+        logMap.put("tenantId", taskLog.getTenantId());
+        logMap.put("creationLog", taskLog.isCreationLog());
+        logMap.put("failureLog", taskLog.isFailureLog());
+        logMap.put("successLog", taskLog.isSuccessLog());
+        logMap.put("deletionLog", taskLog.isDeletionLog());
+        logMap.put("removalTime", formatDate(taskLog.getRemovalTime()));
+        logMap.put("rootProcessInstanceId", taskLog.getRootProcessInstanceId());
+        return logMap;
+    }
+
+    private Map<String, Object> toActivityInstanceMap(ActivityInstance activityInstance) {
+        Map<String, Object> instanceMap = new HashMap<>();
+        instanceMap.put("id", activityInstance.getId());
+        instanceMap.put("parentActivityInstanceId", activityInstance.getParentActivityInstanceId());
+        instanceMap.put("activityId", activityInstance.getActivityId());
+        instanceMap.put("activityType", activityInstance.getActivityType());
+        instanceMap.put("processInstanceId", activityInstance.getProcessInstanceId());
+        instanceMap.put("processDefinitionId", activityInstance.getProcessDefinitionId());
+        instanceMap.put("activityName", activityInstance.getActivityName());
+        instanceMap.put("name", activityInstance.getActivityName());
+        instanceMap.put("executionIds", Arrays.asList(activityInstance.getExecutionIds()));
+
+        List<Map<String, Object>> childActivityInstances = new ArrayList<>();
+        for (ActivityInstance child : activityInstance.getChildActivityInstances()) {
+            childActivityInstances.add(toActivityInstanceMap(child));
+        }
+        instanceMap.put("childActivityInstances", childActivityInstances);
+
+        List<Map<String, Object>> childTransitionInstances = new ArrayList<>();
+        for (TransitionInstance transition : activityInstance.getChildTransitionInstances()) {
+            Map<String, Object> transitionMap = new HashMap<>();
+            transitionMap.put("id", transition.getId());
+            transitionMap.put("parentActivityInstanceId", transition.getParentActivityInstanceId());
+            transitionMap.put("activityId", transition.getActivityId());
+            transitionMap.put("activityName", transition.getActivityName());
+            transitionMap.put("activityType", transition.getActivityType());
+            transitionMap.put("processInstanceId", transition.getProcessInstanceId());
+            transitionMap.put("processDefinitionId", transition.getProcessDefinitionId());
+            transitionMap.put("executionId", transition.getExecutionId());
+            childTransitionInstances.add(transitionMap);
+        }
+        instanceMap.put("childTransitionInstances", childTransitionInstances);
+
+        return instanceMap;
+    }
+
+    private DeploymentResponse toDeploymentResponse(Deployment deployment) {
+        DeploymentResponse response = new DeploymentResponse();
+        response.setId(deployment.getId());
+        response.setName(deployment.getName());
+        response.setSource(deployment.getSource());
+        response.setTenantId(deployment.getTenantId());
+        if (deployment.getDeploymentTime() != null) {
+            response.setDeploymentTime(OffsetDateTime.ofInstant(
+                    deployment.getDeploymentTime().toInstant(), ZoneId.systemDefault()));
+        }
+        return response;
+    }
+
+    private String formatDate(Date date) {
+        return date != null ? new SimpleDateFormat(DATE_FORMAT).format(date) : null;
+    }
+
+    private Date parseDate(String date) throws ParseException {
+        return new SimpleDateFormat(DATE_FORMAT).parse(date);
+    }
+
+    /**
+     * Handle exceptions
+     */
+    private void handleException(Exception ex, String operation) {
+        log.error("Error calling Camunda engine API {}: {}", operation, ex.getMessage(), ex);
+
+        if (ex instanceof ClientException) {
+            throw (ClientException) ex;
+        }
+
+        throw new ClientException(
+                "Camunda engine API error: " + ex.getMessage(),
+                null,
+                CLIENT_NAME,
+                operation,
+                ex
+        );
+    }
+}
@@ -4,11 +4,13 @@ import com.example.exception.ClientException;
 import com.example.model.client.DeploymentResponse;
 import com.example.model.common.RestRequestModel;
 import com.example.model.common.RestResponseModel;
+import com.example.util.AsyncHostLimiter;
 import com.example.util.JsonUtils;
 import com.example.util.RestClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -21,22 +23,29 @@ import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.File;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Camunda REST API client.
- * All Camunda REST API calls should be made through this class.
+ * Used when the engine is remote ({@code camunda.client.mode=rest}, the default).
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class CamundaRestClient {
+@ConditionalOnProperty(name = "camunda.client.mode", havingValue = "rest", matchIfMissing = true)
+public class CamundaRestClient implements CamundaClient {
     
     private final RestClient restClient;
     private final RestTemplate restTemplate;
     private final JsonUtils jsonUtils;
+    private final AsyncHostLimiter asyncHostLimiter;
     
     @Value("${camunda.rest.url:http://localhost:8080/engine-rest}")
     private String camundaRestUrl;
@@ -46,6 +55,7 @@ public class CamundaRestClient {
     /**
      * Deploy BPMN process
      */
+    @Override
     public void deployProcess(String deploymentName, File bpmnFile) {
         String endpoint = "/deployment/create";
         try {
@@ -92,6 +102,7 @@ public class CamundaRestClient {
     /**
      * Start process instance
      */
+    @Override
     public String startProcess(String processKey, Map<String, Object> variables) {
         String endpoint = "/process-definition/key/" + processKey + "/start";
         try {
@@ -124,9 +135,82 @@ public class CamundaRestClient {
         }
     }
 
+    /**
+     * Start process instances with pipelined requests over a sliding window: starts are sent without waiting for
+     * earlier responses, with at most the engine host's request limit in flight so none waits for a free slot
+     */
+    @Override
+    public List<CompletableFuture<String>> startProcesses(String processKey, List<Map<String, Object>> variableSets) {
+        String endpoint = "/process-definition/key/" + processKey + "/start";
+        List<CompletableFuture<String>> results = new ArrayList<>(variableSets.size());
+        for (int i = 0; i < variableSets.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        int window = Math.min(asyncHostLimiter.getLimit(URI.create(camundaRestUrl)), variableSets.size());
+        for (int i = 0; i < window; i++) {
+            startNext(endpoint, variableSets, results, next);
+        }
+        return results;
+    }
+
+    /**
+     * Sends the next start of the window; its completion sends the one after it
+     */
+    private void startNext(String endpoint, List<Map<String, Object>> variableSets,
+                           List<CompletableFuture<String>> results, AtomicInteger next) {
+        int index = next.getAndIncrement();
+        if (index >= variableSets.size()) {
+            return;
+        }
+
+        startProcessAsync(endpoint, variableSets.get(index)).whenComplete((id, error) -> {
+            if (error != null) {
+                results.get(index).completeExceptionally(error);
+            } else {
+                results.get(index).complete(id);
+            }
+            startNext(endpoint, variableSets, results, next);
+        });
+    }
+
+    private CompletableFuture<String> startProcessAsync(String endpoint, Map<String, Object> variables) {
+        RestRequestModel<Map> requestModel = RestRequestModel.<Map>builder()
+                .url(camundaRestUrl + endpoint)
+                .method(HttpMethod.POST)
+                .body(Map.of("variables", formatCamundaVariables(variables)))
+                .responseType(Map.class)
+                .build();
+
+        return restClient.executeAsync(requestModel)
+                .handle((response, error) -> {
+                    // Same checks as startProcess, so engine and transport errors surface as ClientException
+                    try {
+                        if (error != null) {
+                            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                            throw cause instanceof Exception exception ? exception : new RuntimeException(cause);
+                        }
+                        if (!response.isSuccess()) {
+                            throw new RuntimeException("Process not started: " + response.getErrorMessage());
+                        }
+                        Object id = response.getBody() != null ? response.getBody().get("id") : null;
+                        if (!(id instanceof String)) {
+                            throw new RuntimeException("Process not started: no process instance id in response");
+                        }
+                        return (String) id;
+                    } catch (Exception ex) {
+                        handleException(ex, endpoint);
+                        return null; // This line will never be reached as handleException always throws an exception
+                    }
+                });
+    }
+
     /**
      * Complete a task
      */
+    @Override
     public void completeTask(String taskId, Map<String, Object> variables) {
         String endpoint = "/task/" + taskId + "/complete";
         try {
@@ -159,6 +243,7 @@ public class CamundaRestClient {
     /**
      * Delete a process instance
      */
+    @Override
     public void deleteProcessInstance(String processInstanceId, String deleteReason) {
         String endpoint = "/process-instance/" + processInstanceId;
         try {
@@ -189,6 +274,7 @@ public class CamundaRestClient {
     /**
      * Delete a deployment
      */
+    @Override
     public void deleteDeployment(String deploymentId, boolean cascade) {
         String endpoint = "/deployment/" + deploymentId;
         try {
@@ -218,6 +304,7 @@ public class CamundaRestClient {
     /**
      * Get tasks by process instance ID
      */
+    @Override
     public List<Map<String, Object>> getTasksByProcessInstanceId(String processInstanceId) {
         String endpoint = "/task";
         try {
@@ -250,6 +337,7 @@ public class CamundaRestClient {
     /**
      * Get task details
      */
+    @Override
     public Map<String, Object> getTask(String taskId) {
         String endpoint = "/task/" + taskId;
         try {
@@ -277,6 +365,7 @@ public class CamundaRestClient {
     /**
      * Get process instance variables
      */
+    @Override
     public Map<String, Object> getProcessVariables(String processInstanceId) {
         String endpoint = "/process-instance/" + processInstanceId + "/variables";
         try {
@@ -304,6 +393,7 @@ public class CamundaRestClient {
     /**
      * Get list of deployments based on various filter criteria
      */
+    @Override
     public List<DeploymentResponse> getDeployments(
             String id,
             String name,
@@ -368,6 +458,7 @@ public class CamundaRestClient {
     /**
      * Get external tasks by process instance ID
      */
+    @Override
     public List<Map<String, Object>> getExternalTasksByProcessInstanceId(String processInstanceId) {
         String endpoint = "/external-task";
         try {
@@ -449,6 +540,7 @@ public class CamundaRestClient {
     /**
      * Get activity instances for a process instance
      */
+    @Override
     public Map<String, Object> getActivityInstances(String processInstanceId) {
         String endpoint = "/process-instance/" + processInstanceId + "/activity-instances";
         try {
@@ -477,6 +569,7 @@ public class CamundaRestClient {
      * Modify process instance execution state
      * This can be used to control gateways by starting execution at specific activities
      */
+    @Override
     public void modifyProcessInstance(String processInstanceId, List<Map<String, Object>> instructions) {
         String endpoint = "/process-instance/" + processInstanceId + "/modification";
         try {
@@ -509,6 +602,7 @@ public class CamundaRestClient {
     /**
      * Get BPMN model XML for a process definition
      */
+    @Override
     public String getProcessDefinitionXml(String processDefinitionId) {
         String endpoint = "/process-definition/" + processDefinitionId + "/xml";
         try {
@@ -538,6 +632,7 @@ public class CamundaRestClient {
      * @param processInstanceId Optional process instance ID to filter by
      * @return List of active tasks
      */
+    @Override
     public List<Map<String, Object>> getActiveTasksHistory(String processInstanceId) {
         String endpoint = "/history/task";
         try {
@@ -575,6 +670,7 @@ public class CamundaRestClient {
      * @param processInstanceId Optional process instance ID to filter by
      * @return List of completed tasks
      */
+    @Override
     public List<Map<String, Object>> getCompletedTasksHistory(String processInstanceId) {
         String endpoint = "/history/task";
         try {
@@ -609,11 +705,48 @@ public class CamundaRestClient {
         }
     }
 
+    /**
+     * Get the history of a single task, active or completed
+     * @param taskId Task ID
+     * @return Task history, or null if the task is unknown
+     */
+    @Override
+    public Map<String, Object> getTaskHistory(String taskId) {
+        String endpoint = "/history/task";
+        try {
+            // Query parameters
+            MultiValueMap<String, String> queryParams = new LinkedMultiValueMap<>();
+            queryParams.add("taskId", taskId);
+            
+            // Create RestRequestModel
+            RestRequestModel<List> requestModel = RestRequestModel.<List>builder()
+                    .url(camundaRestUrl + endpoint)
+                    .method(HttpMethod.GET)
+                    .queryParams(queryParams)
+                    .responseType(List.class)
+                    .build();
+            
+            // Send request
+            RestResponseModel<List> response = restClient.execute(requestModel);
+            
+            if (!response.isSuccess()) {
+                throw new RuntimeException("Task history not retrieved: " + taskId);
+            }
+            
+            List<?> tasks = response.getBody();
+            return tasks == null || tasks.isEmpty() ? null : (Map<String, Object>) tasks.get(0);
+        } catch (Exception ex) {
+            handleException(ex, endpoint);
+            return null; // This line will never be reached as handleException always throws an exception
+        }
+    }
+
     /**
      * Get completed external tasks history from Camunda
      * @param processInstanceId Optional process instance ID to filter by
      * @return List of completed external tasks
      */
+    @Override
     public List<Map<String, Object>> getExternalTaskHistory(String processInstanceId) {
         String endpoint = "/history/external-task-log";
         try {
@@ -0,0 +1,91 @@
+package com.example.config;
+
+import com.example.handler.AdaptiveFetchController;
+import lombok.RequiredArgsConstructor;
+import org.camunda.bpm.client.ExternalTaskClient;
+import org.camunda.bpm.client.ExternalTaskClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds external task clients from the shared camunda.external-task settings.
+ * Used for the default client and for the dedicated clients of worker groups.
+ */
+@Component
+@RequiredArgsConstructor
+@Conditional(ExternalTaskEnabledCondition.class)
+public class ExternalTaskClientFactory {
+
+    private final AdaptiveFetchController adaptiveFetchController;
+
+    @Value("${camunda.rest.url:http://localhost:8080/engine-rest}")
+    private String camundaRestUrl;
+    
+    @Value("${camunda.external-task.lock-duration:20000}")
+    private long lockDuration;
+    
+    @Value("${camunda.external-task.async-response-timeout:10000}")
+    private long asyncResponseTimeout;
+    
+    @Value("${camunda.external-task.max-tasks:1}")
+    private int maxTasks;
+    
+    @Value("${camunda.external-task.worker-id:generic-external-task-worker}")
+    private String workerId;
+
+    @Value("${camunda.external-task.worker.mode:sequential}")
+    private String workerMode;
+
+    @Value("${camunda.external-task.worker.pool-size:8}")
+    private int workerPoolSize;
+
+    @Value("${camunda.external-task.worker.max-in-flight:256}")
+    private int workerMaxInFlight;
+
+    /**
+     * Creates the default client
+     */
+    public ExternalTaskClient create() {
+        return build(workerId, resolveMaxTasks());
+    }
+
+    /**
+     * Creates a dedicated client for a worker group.
+     * The group name is appended to the worker id so locks can be traced back to the group.
+     *
+     * @param workerGroup Worker group name
+     * @param groupMaxTasks Fetch size of the group, falls back to the default fetch size when null
+     */
+    public ExternalTaskClient createForGroup(String workerGroup, Integer groupMaxTasks) {
+        return build(workerId + "-" + workerGroup, groupMaxTasks != null ? groupMaxTasks : resolveMaxTasks());
+    }
+
+    private ExternalTaskClient build(String clientWorkerId, int clientMaxTasks) {
+        ExternalTaskClientBuilder builder = ExternalTaskClient.create()
+                .baseUrl(camundaRestUrl)
+                .asyncResponseTimeout(asyncResponseTimeout)
+                .maxTasks(clientMaxTasks)
+                .defaultSerializationFormat("application/json")
+                .lockDuration(lockDuration)
+                .workerId(clientWorkerId);
+
+        if (adaptiveFetchController.isEnabled()) {
+            builder.backoffStrategy(adaptiveFetchController.createBackoffStrategy());
+        }
+        return builder.build();
+    }
+
+    /**
+     * In concurrent and async mode a fetch should be able to fill every worker slot
+     */
+    private int resolveMaxTasks() {
+        if ("concurrent".equalsIgnoreCase(workerMode)) {
+            return Math.max(maxTasks, workerPoolSize);
+        }
+        if ("async".equalsIgnoreCase(workerMode)) {
+            return Math.max(maxTasks, workerMaxInFlight);
+        }
+        return maxTasks;
+    }
+}
@@ -1,24 +1,153 @@
 package com.example.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
 import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * RestTemplate used for partner API and Camunda REST calls.
+ * Connections are pooled per route (scheme, host and port) and kept alive between calls,
+ * so repeated calls to the same host do not pay TCP/TLS setup each time.
+ * Timeouts configured here are defaults; RestClient narrows them per request.
+ */
+@Slf4j
 @Configuration
 public class RestTemplateConfig {
 
-    @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(5000);
-        requestFactory.setReadTimeout(5000);
+    @Value("${rest-client.connect-timeout:5000}")
+    private int connectTimeout;
+
+    @Value("${rest-client.read-timeout:5000}")
+    private int readTimeout;
+
+    @Value("${rest-client.pool.max-total:200}")
+    private int maxTotal;
+
+    @Value("${rest-client.pool.default-max-per-route:20}")
+    private int defaultMaxPerRoute;
+
+    // Comma separated "scheme://host[:port]=limit" entries, e.g. "https://api.partner.com=50"
+    @Value("${rest-client.pool.max-per-host:}")
+    private String maxPerHost;
+
+    @Value("${rest-client.pool.connection-request-timeout:2000}")
+    private int connectionRequestTimeout;
+
+    @Value("${rest-client.pool.keep-alive:30000}")
+    private long keepAlive;
+
+    @Value("${rest-client.pool.idle-timeout:60000}")
+    private long idleTimeout;
+
+    @Value("${rest-client.pool.validate-after-inactivity:2000}")
+    private int validateAfterInactivity;
+
+    @Value("${rest-client.async.threads:4}")
+    private int asyncThreads;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
+        connectionManager.setValidateAfterInactivity(validateAfterInactivity);
+
+        if (maxPerHost != null && !maxPerHost.isBlank()) {
+            for (String entry : maxPerHost.split(",")) {
+                String[] parts = entry.trim().split("=");
+                if (parts.length != 2) {
+                    log.warn("Ignoring invalid rest-client.pool.max-per-host entry: {}", entry);
+                    continue;
+                }
+                HttpRoute route = toRoute(parts[0].trim());
+                int limit = Integer.parseInt(parts[1].trim());
+                connectionManager.setMaxPerRoute(route, limit);
+                log.info("Connection limit for {}: {}", route.getTargetHost(), limit);
+            }
+        }
+
+        log.info("HTTP connection pool: maxTotal={}, defaultMaxPerRoute={}", maxTotal, defaultMaxPerRoute);
+        return connectionManager;
+    }
 
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient pooledHttpClient(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(connectTimeout)
+                .setSocketTimeout(readTimeout)
+                .setConnectionRequestTimeout(connectionRequestTimeout)
+                .build();
+
+        // Honour the server's Keep-Alive header, otherwise keep idle connections for the configured time
+        ConnectionKeepAliveStrategy keepAliveStrategy = (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? serverKeepAlive : keepAlive;
+        };
+
+        return HttpClients.custom()
+                .setConnectionManager(httpClientConnectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient pooledHttpClient) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(5))
+                .requestFactory(() -> new TimeoutAwareHttpRequestFactory(pooledHttpClient))
                 .build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Non-blocking client behind RestClient.executeAsync.
+     * Requests do not hold a thread while waiting for the response; the small executor only runs
+     * response handling and completion callbacks. Connections are pooled and kept alive by the client itself,
+     * outside the connection manager above; RestClient bounds its requests per host with AsyncHostLimiter.
+     */
+    @Bean
+    public HttpClient asyncHttpClient() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "rest-client-async-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeout))
+                .executor(Executors.newFixedThreadPool(asyncThreads, threadFactory))
+                .build();
+    }
+
+    /**
+     * Builds the pool route of a "scheme://host[:port]" entry the same way HttpClient plans routes
+     */
+    private HttpRoute toRoute(String hostUrl) {
+        URI uri = URI.create(hostUrl);
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+    }
+}
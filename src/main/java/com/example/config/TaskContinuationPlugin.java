@@ -0,0 +1,75 @@
+package com.example.config;
+
+import com.example.service.TaskContinuationDispatcher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.delegate.DelegateTask;
+import org.camunda.bpm.engine.delegate.TaskListener;
+import org.camunda.bpm.engine.impl.bpmn.behavior.UserTaskActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.AbstractProcessEnginePlugin;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+import org.camunda.bpm.engine.impl.pvm.process.ScopeImpl;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Engine plugin that reports every created user task to the {@link TaskContinuationDispatcher}
+ * once the transaction creating it has committed, so task chains continue without polling.
+ * Only active with the in-process engine; external tasks already reach workers through long polling.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${camunda.client.mode:rest}' == 'embedded' and ${task-continuation.enabled:false}")
+public class TaskContinuationPlugin extends AbstractProcessEnginePlugin {
+
+    // Resolved on first event, the dispatcher depends on beans that need the engine this plugin configures
+    private final ObjectProvider<TaskContinuationDispatcher> dispatcherProvider;
+
+    @Override
+    public void preInit(ProcessEngineConfigurationImpl configuration) {
+        List<BpmnParseListener> parseListeners = configuration.getCustomPostBPMNParseListeners();
+        if (parseListeners == null) {
+            parseListeners = new ArrayList<>();
+            configuration.setCustomPostBPMNParseListeners(parseListeners);
+        }
+
+        TaskListener createListener = this::onTaskCreated;
+        parseListeners.add(new AbstractBpmnParseListener() {
+            @Override
+            public void parseUserTask(Element userTaskElement, ScopeImpl scope, ActivityImpl activity) {
+                if (activity.getActivityBehavior() instanceof UserTaskActivityBehavior behavior) {
+                    behavior.getTaskDefinition().addTaskListener(TaskListener.EVENTNAME_CREATE, createListener);
+                }
+            }
+        });
+        log.info("Event-driven task continuation enabled");
+    }
+
+    private void onTaskCreated(DelegateTask task) {
+        if (!(task.getExecution() instanceof ExecutionEntity execution)) {
+            return;
+        }
+
+        String taskId = task.getId();
+        String processInstanceId = task.getProcessInstanceId();
+        String processDefinitionKey = execution.getProcessDefinition().getKey();
+        String taskDefinitionKey = task.getTaskDefinitionKey();
+
+        // The task is only visible to other threads after commit
+        Context.getCommandContext().getTransactionContext().addTransactionListener(TransactionState.COMMITTED,
+                commandContext -> dispatcherProvider.getObject()
+                        .onTaskCreated(taskId, processInstanceId, processDefinitionKey, taskDefinitionKey));
+    }
+}
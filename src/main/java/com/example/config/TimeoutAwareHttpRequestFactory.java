@@ -0,0 +1,68 @@
+package com.example.config;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.net.URI;
+import java.util.function.Supplier;
+
+/**
+ * Request factory that lets a single call override the client's connect and read timeouts.
+ * The override applies to requests created on the calling thread inside {@link #withTimeout(int, Supplier)},
+ * all calls still share the same pooled HttpClient.
+ */
+public class TimeoutAwareHttpRequestFactory extends HttpComponentsClientHttpRequestFactory {
+
+    private static final ThreadLocal<Integer> TIMEOUT = new ThreadLocal<>();
+
+    public TimeoutAwareHttpRequestFactory(HttpClient httpClient) {
+        super(httpClient);
+    }
+
+    /**
+     * Runs a call with the given connect and read timeout.
+     *
+     * @param timeoutMillis Timeout in milliseconds, 0 or negative keeps the client defaults
+     * @param call Call to run
+     * @return Result of the call
+     */
+    public static <T> T withTimeout(int timeoutMillis, Supplier<T> call) {
+        if (timeoutMillis <= 0) {
+            return call.get();
+        }
+
+        Integer previous = TIMEOUT.get();
+        TIMEOUT.set(timeoutMillis);
+        try {
+            return call.get();
+        } finally {
+            if (previous != null) {
+                TIMEOUT.set(previous);
+            } else {
+                TIMEOUT.remove();
+            }
+        }
+    }
+
+    @Override
+    protected HttpContext createHttpContext(HttpMethod httpMethod, URI uri) {
+        Integer timeout = TIMEOUT.get();
+        if (timeout == null) {
+            return super.createHttpContext(httpMethod, uri);
+        }
+
+        RequestConfig defaults = createRequestConfig(getHttpClient());
+        RequestConfig.Builder config = defaults != null ? RequestConfig.copy(defaults) : RequestConfig.custom();
+
+        HttpClientContext context = HttpClientContext.create();
+        context.setRequestConfig(config
+                .setConnectTimeout(timeout)
+                .setSocketTimeout(timeout)
+                .build());
+        return context;
+    }
+}
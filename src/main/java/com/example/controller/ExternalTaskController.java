@@ -59,8 +59,34 @@ public class ExternalTaskController {
         
         if (externalTaskEnabled) {
             status.put("activeSubscriptions", externalTaskHandler.getActiveSubscriptions());
+            status.put("pausedTopics", externalTaskHandler.getPausedTopics());
+            status.put("worker", externalTaskHandler.getWorkerStatus());
         }
         
         return ResponseEntity.ok(status);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Stops fetching tasks of a topic until it is resumed
+     */
+    @PostMapping("/topics/{topic}/pause")
+    public ResponseEntity<Map<String, Object>> pauseTopic(@PathVariable String topic) {
+        Map<String, Object> response = new HashMap<>();
+        boolean paused = externalTaskEnabled && externalTaskHandler.pauseTopic(topic);
+        response.put("success", paused);
+        response.put("message", paused ? "Paused topic " + topic : "No active subscription for topic " + topic);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Resumes fetching tasks of a paused topic
+     */
+    @PostMapping("/topics/{topic}/resume")
+    public ResponseEntity<Map<String, Object>> resumeTopic(@PathVariable String topic) {
+        Map<String, Object> response = new HashMap<>();
+        boolean resumed = externalTaskEnabled && externalTaskHandler.resumeTopic(topic);
+        response.put("success", resumed);
+        response.put("message", resumed ? "Resumed topic " + topic : "Topic " + topic + " is not paused");
+        return ResponseEntity.ok(response);
+    }
+}
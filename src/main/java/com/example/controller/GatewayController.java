@@ -1,5 +1,6 @@
 package com.example.controller;
 
+import com.example.client.CamundaClient;
 import com.example.service.GatewayService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,6 +20,7 @@ import java.util.Map;
 public class GatewayController {
     
     private final GatewayService gatewayService;
+    private final CamundaClient camundaClient;
     
     /**
      * Get all gateways in a process instance
@@ -56,6 +58,30 @@ public class GatewayController {
         }
     }
     
+    /**
+     * Route an active gateway by evaluating its conditions against the current process variables
+     */
+    @PostMapping("/process-instance/{processInstanceId}/route")
+    public ResponseEntity<List<String>> routeGateway(
+            @PathVariable String processInstanceId,
+            @RequestParam String gatewayId) {
+        try {
+            Map<String, Object> gateway = gatewayService.getGateways(processInstanceId).stream()
+                    .filter(candidate -> gatewayId.equals(candidate.get("id")))
+                    .findFirst()
+                    .orElse(null);
+            if (gateway == null) {
+                return ResponseEntity.notFound().build();
+            }
+            
+            Map<String, Object> variables = camundaClient.getProcessVariables(processInstanceId);
+            return ResponseEntity.ok(gatewayService.routeGateway(processInstanceId, gateway, variables));
+        } catch (Exception e) {
+            log.error("Error routing gateway for process instance: {}", processInstanceId, e);
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Execute an exclusive gateway
      */
@@ -0,0 +1,61 @@
+package com.example.controller;
+
+import com.example.util.AsyncHostLimiter;
+import com.example.util.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/http-client")
+@RequiredArgsConstructor
+public class HttpClientPoolController {
+
+    private final PoolingHttpClientConnectionManager httpClientConnectionManager;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final AsyncHostLimiter asyncHostLimiter;
+
+    /**
+     * Returns connection pool utilization in total and per route (destination host),
+     * and the requests in flight per host of the non-blocking client
+     */
+    @GetMapping("/pool")
+    public ResponseEntity<Map<String, Object>> getPoolStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("total", toMap(httpClientConnectionManager.getTotalStats()));
+
+        Map<String, Object> routes = new HashMap<>();
+        for (HttpRoute route : httpClientConnectionManager.getRoutes()) {
+            routes.put(route.getTargetHost().toURI(), toMap(httpClientConnectionManager.getStats(route)));
+        }
+        status.put("routes", routes);
+        status.put("async", asyncHostLimiter.getStatus());
+
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Returns the circuit breaker state of each partner API endpoint
+     */
+    @GetMapping("/circuit-breakers")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCircuitBreakerStatus() {
+        return ResponseEntity.ok(circuitBreakerRegistry.getStatus());
+    }
+
+    private Map<String, Object> toMap(PoolStats stats) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("leased", stats.getLeased());
+        map.put("pending", stats.getPending());
+        map.put("available", stats.getAvailable());
+        map.put("max", stats.getMax());
+        return map;
+    }
+}
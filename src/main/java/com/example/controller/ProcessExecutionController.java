@@ -1,18 +1,37 @@
 package com.example.controller;
 
 import com.example.service.ProcessExecutionService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping("/api/process")
 @RequiredArgsConstructor
 public class ProcessExecutionController {
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final ProcessExecutionService processExecutionService;
+    private final ObjectMapper objectMapper;
+
+    // Async timeout of bulk starts only, 0 lets a stream run as long as the import takes
+    @Value("${process-start.bulk-timeout:0}")
+    private long bulkStartTimeout;
 
     @PostMapping("/start/{processKey}")
     public ResponseEntity<String> startProcess(
@@ -29,6 +48,41 @@ public class ProcessExecutionController {
         }
     }
 
+    /**
+     * Starts one process instance per variable set.
+     * The body is a JSON array or newline delimited JSON objects and is read while instances are started;
+     * results are streamed back as one JSON line per variable set, in input order.
+     * Malformed input ends the stream with an error line carrying the index of the first entry that was not read.
+     * The stream runs with its own async timeout (process-start.bulk-timeout) instead of the application-wide one.
+     */
+    @PostMapping(value = "/start/{processKey}/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON},
+            produces = APPLICATION_NDJSON)
+    public WebAsyncTask<Void> startProcesses(
+            @PathVariable String processKey,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        response.setContentType(APPLICATION_NDJSON);
+        Callable<Void> body = () -> {
+            OutputStream outputStream = response.getOutputStream();
+            try (MappingIterator<Map<String, Object>> variableSets = objectMapper
+                    .readerFor(new TypeReference<Map<String, Object>>() { })
+                    .readValues(request.getInputStream())) {
+                processExecutionService.startProcesses(processKey, variableSets, result -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(result));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            return null;
+        };
+        return new WebAsyncTask<>(bulkStartTimeout, body);
+    }
+
     @PostMapping("/task/{taskId}/execute")
     public ResponseEntity<Void> executeTask(@PathVariable String taskId) {
         try {
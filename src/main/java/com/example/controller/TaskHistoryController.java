@@ -1,6 +1,7 @@
 package com.example.controller;
 
-import com.example.client.CamundaRestClient;
+import com.example.client.CamundaClient;
+import com.example.service.TaskHistoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -20,7 +21,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class TaskHistoryController {
     
-    private final CamundaRestClient camundaRestClient;
+    private final CamundaClient camundaClient;
+    private final TaskHistoryService taskHistoryService;
     
     /**
      * Aktif olarak çalışan (execute edilen) tüm görevleri döndürür.
@@ -30,7 +32,7 @@ public class TaskHistoryController {
     public ResponseEntity<List<Map<String, Object>>> getActiveTasks(
             @RequestParam(required = false) String processInstanceId) {
         try {
-            List<Map<String, Object>> activeTasks = camundaRestClient.getActiveTasksHistory(processInstanceId);
+            List<Map<String, Object>> activeTasks = camundaClient.getActiveTasksHistory(processInstanceId);
             return ResponseEntity.ok(activeTasks);
         } catch (Exception e) {
             log.error("Aktif görevler alınırken hata oluştu: {}", e.getMessage(), e);
@@ -46,7 +48,7 @@ public class TaskHistoryController {
     public ResponseEntity<List<Map<String, Object>>> getCompletedTasks(
             @RequestParam(required = false) String processInstanceId) {
         try {
-            List<Map<String, Object>> completedTasks = camundaRestClient.getCompletedTasksHistory(processInstanceId);
+            List<Map<String, Object>> completedTasks = camundaClient.getCompletedTasksHistory(processInstanceId);
             return ResponseEntity.ok(completedTasks);
         } catch (Exception e) {
             log.error("Tamamlanmış görevler alınırken hata oluştu: {}", e.getMessage(), e);
@@ -60,26 +62,11 @@ public class TaskHistoryController {
     @GetMapping("/{taskId}")
     public ResponseEntity<Map<String, Object>> getTaskHistory(@PathVariable String taskId) {
         try {
-            // Önce tamamlanan görevler arasında arayalım
-            List<Map<String, Object>> completedTasks = camundaRestClient.getCompletedTasksHistory(null);
-            
-            for (Map<String, Object> task : completedTasks) {
-                if (taskId.equals(task.get("id"))) {
-                    return ResponseEntity.ok(task);
-                }
-            }
-            
-            // Bulunamadıysa aktif görevler arasında arayalım
-            List<Map<String, Object>> activeTasks = camundaRestClient.getActiveTasksHistory(null);
-            
-            for (Map<String, Object> task : activeTasks) {
-                if (taskId.equals(task.get("id"))) {
-                    return ResponseEntity.ok(task);
-                }
-            }
+            // Görev doğrudan id ile sorgulanır, tamamlanmış görevler önbellekten döner
+            Map<String, Object> task = taskHistoryService.getTaskHistory(taskId);
             
             // Eğer görev bulunamadıysa 404 döndürelim
-            return ResponseEntity.notFound().build();
+            return task != null ? ResponseEntity.ok(task) : ResponseEntity.notFound().build();
         } catch (Exception e) {
             log.error("Görev geçmişi alınırken hata oluştu: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().build();
@@ -93,8 +80,8 @@ public class TaskHistoryController {
     public ResponseEntity<Map<String, List<Map<String, Object>>>> getAllTasksForProcess(
             @PathVariable String processInstanceId) {
         try {
-            List<Map<String, Object>> activeTasks = camundaRestClient.getActiveTasksHistory(processInstanceId);
-            List<Map<String, Object>> completedTasks = camundaRestClient.getCompletedTasksHistory(processInstanceId);
+            List<Map<String, Object>> activeTasks = camundaClient.getActiveTasksHistory(processInstanceId);
+            List<Map<String, Object>> completedTasks = camundaClient.getCompletedTasksHistory(processInstanceId);
             
             Map<String, List<Map<String, Object>>> result = Map.of(
                     "activeTasks", activeTasks,
@@ -116,7 +103,7 @@ public class TaskHistoryController {
     public ResponseEntity<List<Map<String, Object>>> getExternalTaskHistory(
             @RequestParam(required = false) String processInstanceId) {
         try {
-            List<Map<String, Object>> externalTasks = camundaRestClient.getExternalTaskHistory(processInstanceId);
+            List<Map<String, Object>> externalTasks = camundaClient.getExternalTaskHistory(processInstanceId);
             return ResponseEntity.ok(externalTasks);
         } catch (Exception e) {
             log.error("External task geçmişi alınırken hata oluştu: {}", e.getMessage(), e);
@@ -132,14 +119,14 @@ public class TaskHistoryController {
             @PathVariable String processInstanceId) {
         try {
             // Aktif ve tamamlanan user task'ları al
-            List<Map<String, Object>> activeTasks = camundaRestClient.getActiveTasksHistory(processInstanceId);
-            List<Map<String, Object>> completedTasks = camundaRestClient.getCompletedTasksHistory(processInstanceId);
+            List<Map<String, Object>> activeTasks = camundaClient.getActiveTasksHistory(processInstanceId);
+            List<Map<String, Object>> completedTasks = camundaClient.getCompletedTasksHistory(processInstanceId);
             
             // External task'ları al
-            List<Map<String, Object>> externalTasks = camundaRestClient.getExternalTaskHistory(processInstanceId);
+            List<Map<String, Object>> externalTasks = camundaClient.getExternalTaskHistory(processInstanceId);
             
             // Aktif external task'ları al
-            List<Map<String, Object>> activeExternalTasks = camundaRestClient.getExternalTasksByProcessInstanceId(processInstanceId);
+            List<Map<String, Object>> activeExternalTasks = camundaClient.getExternalTasksByProcessInstanceId(processInstanceId);
             
             Map<String, Object> result = new HashMap<>();
             result.put("activeUserTasks", activeTasks);
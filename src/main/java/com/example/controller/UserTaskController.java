@@ -1,9 +1,15 @@
 package com.example.controller;
 
-import com.example.client.CamundaRestClient;
+import com.example.client.CamundaClient;
+import com.example.exception.BusinessException;
+import com.example.exception.ClientException;
+import com.example.model.api.request.BulkTaskCompletionRequest;
+import com.example.model.api.response.TaskCompletionResult;
 import com.example.service.ProcessExecutionService;
+import com.example.service.UserTaskCompletionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,8 +27,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class UserTaskController {
     
-    private final CamundaRestClient camundaRestClient;
+    private final CamundaClient camundaClient;
     private final ProcessExecutionService processExecutionService;
+    private final UserTaskCompletionService userTaskCompletionService;
     
     /**
      * Belirli bir süreç örneği için tüm aktif kullanıcı görevlerini getirir
@@ -31,7 +38,7 @@ public class UserTaskController {
     public ResponseEntity<List<Map<String, Object>>> getTasksByProcessInstanceId(
             @PathVariable String processInstanceId) {
         try {
-            List<Map<String, Object>> tasks = camundaRestClient.getTasksByProcessInstanceId(processInstanceId);
+            List<Map<String, Object>> tasks = camundaClient.getTasksByProcessInstanceId(processInstanceId);
             return ResponseEntity.ok(tasks);
         } catch (Exception e) {
             log.error("Süreç örneği {} için görevler getirilirken hata oluştu: {}", processInstanceId, e.getMessage(), e);
@@ -45,7 +52,7 @@ public class UserTaskController {
     @GetMapping("/{taskId}")
     public ResponseEntity<Map<String, Object>> getTaskDetails(@PathVariable String taskId) {
         try {
-            Map<String, Object> taskDetails = camundaRestClient.getTask(taskId);
+            Map<String, Object> taskDetails = camundaClient.getTask(taskId);
             return ResponseEntity.ok(taskDetails);
         } catch (Exception e) {
             log.error("Görev {} için ayrıntılar getirilirken hata oluştu: {}", taskId, e.getMessage(), e);
@@ -65,7 +72,7 @@ public class UserTaskController {
             variables.put("approved", true);
             variables.put("approvalComment", comment != null ? comment : "Onaylandı");
             
-            camundaRestClient.completeTask(taskId, variables);
+            camundaClient.completeTask(taskId, variables);
             
             return ResponseEntity.ok("Görev başarıyla onaylandı");
         } catch (Exception e) {
@@ -86,7 +93,7 @@ public class UserTaskController {
             variables.put("approved", false);
             variables.put("approvalComment", reason != null ? reason : "Reddedildi");
             
-            camundaRestClient.completeTask(taskId, variables);
+            camundaClient.completeTask(taskId, variables);
             
             return ResponseEntity.ok("Görev başarıyla reddedildi");
         } catch (Exception e) {
@@ -103,7 +110,7 @@ public class UserTaskController {
             @PathVariable String taskId,
             @RequestBody Map<String, Object> variables) {
         try {
-            camundaRestClient.completeTask(taskId, variables);
+            camundaClient.completeTask(taskId, variables);
             
             return ResponseEntity.ok("Görev başarıyla tamamlandı");
         } catch (Exception e) {
@@ -111,4 +118,29 @@ public class UserTaskController {
             return ResponseEntity.badRequest().body("Görev tamamlanırken hata oluştu: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Birden fazla kullanıcı görevini tek istekte tamamlar
+     * Görevler açıkça listelenebilir ya da süreç örneği ve görev tanımı anahtarı ile seçilebilir;
+     * her görev için ayrı sonuç döner.
+     * Geçersiz istekler ve user-task.bulk.max-tasks sınırını aşan istekler 400, motor hataları 500 ile hata mesajını döner
+     */
+    @PostMapping("/bulk/complete")
+    public ResponseEntity<?> completeTasks(@RequestBody BulkTaskCompletionRequest request) {
+        try {
+            List<TaskCompletionResult> results = userTaskCompletionService.completeTasks(request);
+            return ResponseEntity.ok(results);
+        } catch (ClientException e) {
+            log.error("Görevler toplu tamamlanırken motor hatası oluştu: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Görevler toplu tamamlanırken hata oluştu: " + e.getMessage());
+        } catch (BusinessException e) {
+            log.warn("Geçersiz toplu tamamlama isteği: {}", e.getMessage());
+            return ResponseEntity.status(e.getStatus()).body("Geçersiz istek: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Görevler toplu tamamlanırken hata oluştu: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Görevler toplu tamamlanırken hata oluştu: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown instead of calling an endpoint whose circuit breaker is open
+ */
+@Getter
+public class CircuitBreakerOpenException extends ClientException {
+    private final long remainingOpenMillis;
+
+    public CircuitBreakerOpenException(String endpoint, long remainingOpenMillis) {
+        super("Circuit breaker is open for " + endpoint + ", retry in " + remainingOpenMillis + "ms",
+                HttpStatus.SERVICE_UNAVAILABLE, "CircuitBreaker", endpoint);
+        this.remainingOpenMillis = remainingOpenMillis;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a non-blocking request waited too long for a free slot of its host.
+ * The request was never sent, so it says nothing about the health of the endpoint
+ */
+@Getter
+public class HostLimitExceededException extends ClientException {
+    private final long waitedMillis;
+
+    public HostLimitExceededException(String host, long waitedMillis) {
+        super("Timeout waiting " + waitedMillis + "ms for a free request slot of " + host,
+                HttpStatus.SERVICE_UNAVAILABLE, "AsyncHostLimiter", host);
+        this.waitedMillis = waitedMillis;
+    }
+}
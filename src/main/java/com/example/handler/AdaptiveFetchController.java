@@ -0,0 +1,287 @@
+package com.example.handler;
+
+import com.example.config.ExternalTaskEnabledCondition;
+import com.example.exception.HostLimitExceededException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.client.backoff.BackoffStrategy;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Adapts how much external task work is taken on to how the partner APIs behave (AIMD).
+ * The concurrency limit of the worker pool grows by one after a limit's worth of healthy executions and
+ * shrinks multiplicatively when executions fail, get rejected or become much slower than their baseline.
+ * Polling backs off while the pool is saturated, and the lock held for each topic follows its observed latency.
+ * The client's fetch size (maxTasks) is fixed per client, so it stays the upper bound of a single fetch.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Conditional(ExternalTaskEnabledCondition.class)
+public class AdaptiveFetchController {
+
+    private final ExternalTaskWorkerPool workerPool;
+
+    @Value("${camunda.external-task.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${camunda.external-task.adaptive.min-limit:1}")
+    private int minLimit;
+
+    // Executions slower than baseline * tolerance count as congestion
+    @Value("${camunda.external-task.adaptive.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${camunda.external-task.adaptive.decrease-factor:0.75}")
+    private double decreaseFactor;
+
+    // Minimum time between two decreases, so one slow burst does not collapse the limit
+    @Value("${camunda.external-task.adaptive.decrease-cooldown:1000}")
+    private long decreaseCooldown;
+
+    @Value("${camunda.external-task.adaptive.lock-latency-factor:3}")
+    private int lockLatencyFactor;
+
+    @Value("${camunda.external-task.adaptive.min-lock-duration:5000}")
+    private long minLockDuration;
+
+    @Value("${camunda.external-task.lock-duration:20000}")
+    private long lockDuration;
+
+    @Value("${camunda.external-task.adaptive.max-backoff:60000}")
+    private long maxBackoff;
+
+    private final Map<String, TopicStats> topics = new ConcurrentHashMap<>();
+    private int limit;
+    private int successesSinceIncrease;
+    private long lastDecrease;
+
+    @PostConstruct
+    public void init() {
+        limit = workerPool.getPoolSize();
+        if (isEnabled()) {
+            log.info("Adaptive fetch control enabled, concurrency limit between {} and {}", minLimit, limit);
+        }
+    }
+
+    /**
+     * Adaptive control needs a bounded pool; in sequential mode it stays off
+     */
+    public boolean isEnabled() {
+        return enabled && (workerPool.isConcurrent() || workerPool.isAsync());
+    }
+
+    /**
+     * Records a finished execution of a topic.
+     *
+     * @param topicName Topic name
+     * @param durationMillis Time from the start on the worker until the outcome was reported,
+     *                       without the time spent waiting for a slot
+     * @param outcome How the execution ended
+     */
+    public void recordExecution(String topicName, long durationMillis, Outcome outcome) {
+        if (!isEnabled() || outcome == Outcome.SKIPPED) {
+            return;
+        }
+
+        TopicStats stats = topics.computeIfAbsent(topicName, name -> new TopicStats());
+        boolean success = outcome == Outcome.HEALTHY;
+        boolean congested = stats.record(durationMillis, success, latencyTolerance);
+        if (!success || congested) {
+            decrease(topicName, success ? "latency " + durationMillis + "ms" : "failure");
+        } else {
+            increase();
+        }
+    }
+
+    /**
+     * Records a task of a topic rejected because its bulkhead was full
+     */
+    public void recordRejection(String topicName) {
+        if (isEnabled()) {
+            topics.computeIfAbsent(topicName, name -> new TopicStats()).recordRejection();
+            decrease(topicName, "bulkhead rejection");
+        }
+    }
+
+    /**
+     * Lock duration for a topic: a multiple of its smoothed latency, between min-lock-duration and lock-duration
+     */
+    public long getLockDuration(String topicName) {
+        TopicStats stats = topics.get(topicName);
+        if (!isEnabled() || stats == null || stats.executions == 0) {
+            return lockDuration;
+        }
+        long adaptive = (long) (stats.latency * lockLatencyFactor);
+        return Math.max(minLockDuration, Math.min(lockDuration, adaptive));
+    }
+
+    /**
+     * Creates the backoff strategy of one external task client
+     */
+    public BackoffStrategy createBackoffStrategy() {
+        return new AdaptiveBackoffStrategy();
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", isEnabled());
+        status.put("concurrencyLimit", limit);
+
+        Map<String, Object> topicStatus = new HashMap<>();
+        topics.forEach((topicName, stats) -> {
+            Map<String, Object> values = stats.toMap();
+            values.put("lockDuration", getLockDuration(topicName));
+            topicStatus.put(topicName, values);
+        });
+        status.put("topics", topicStatus);
+        return status;
+    }
+
+    private synchronized void increase() {
+        if (++successesSinceIncrease < limit || limit >= workerPool.getPoolSize()) {
+            return;
+        }
+        successesSinceIncrease = 0;
+        limit++;
+        workerPool.setConcurrencyLimit(limit);
+    }
+
+    private synchronized void decrease(String topicName, String reason) {
+        long now = System.currentTimeMillis();
+        successesSinceIncrease = 0;
+        if (now - lastDecrease < decreaseCooldown || limit <= minLimit) {
+            return;
+        }
+        lastDecrease = now;
+        limit = Math.max(minLimit, (int) (limit * decreaseFactor));
+        workerPool.setConcurrencyLimit(limit);
+        log.info("Reduced external task concurrency limit to {} ({} on topic {})", limit, reason, topicName);
+    }
+
+    /**
+     * Polls again right away while there is free capacity and work is coming in,
+     * waits while every slot is busy and backs off exponentially while topics are empty
+     */
+    private class AdaptiveBackoffStrategy implements BackoffStrategy {
+        private static final long SATURATED_WAIT = 100;
+        private static final long IDLE_INITIAL_WAIT = 500;
+
+        private long idleWait;
+        private boolean saturated;
+
+        @Override
+        public void reconfigure(List<ExternalTask> externalTasks) {
+            saturated = isEnabled() && workerPool.getAvailableCapacity() <= 0;
+            if (externalTasks.isEmpty()) {
+                idleWait = idleWait == 0 ? IDLE_INITIAL_WAIT : Math.min(idleWait * 2, maxBackoff);
+            } else {
+                idleWait = 0;
+            }
+        }
+
+        @Override
+        public long calculateBackoffTime() {
+            if (saturated) {
+                return SATURATED_WAIT;
+            }
+            return idleWait;
+        }
+    }
+
+    /**
+     * How an execution ended, as far as load on the partner API is concerned
+     */
+    public enum Outcome {
+        /**
+         * Completed, or failed for a reason unrelated to load such as a business 4xx or a validation error
+         */
+        HEALTHY,
+        /**
+         * Failed with a server error, throttling, a timeout or a connection failure
+         */
+        CONGESTED,
+        /**
+         * The partner API was not called, e.g. because its circuit breaker was open or the local host limit was full
+         */
+        SKIPPED;
+
+        /**
+         * Classifies a failed execution: only server errors, 408, 429, timeouts and I/O failures signal congestion
+         */
+        public static Outcome ofFailure(Throwable error) {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof HostLimitExceededException) {
+                    return SKIPPED;
+                }
+                if (cause instanceof HttpStatusCodeException statusException) {
+                    int status = statusException.getRawStatusCode();
+                    return status >= 500 || status == 408 || status == 429 ? CONGESTED : HEALTHY;
+                }
+                if (cause instanceof ResourceAccessException || cause instanceof IOException
+                        || cause instanceof TimeoutException) {
+                    return CONGESTED;
+                }
+            }
+            return HEALTHY;
+        }
+    }
+
+    /**
+     * Smoothed latency and outcome counters of a topic
+     */
+    private static class TopicStats {
+        private static final double ALPHA = 0.2;
+        private static final double BASELINE_ALPHA = 0.02;
+
+        private double latency;
+        private double baseline;
+        private long executions;
+        private long failures;
+        private long rejections;
+
+        synchronized boolean record(long durationMillis, boolean success, double tolerance) {
+            executions++;
+            if (!success) {
+                failures++;
+                return false;
+            }
+            if (executions == 1 || baseline == 0) {
+                latency = durationMillis;
+                baseline = durationMillis;
+                return false;
+            }
+            latency = latency + ALPHA * (durationMillis - latency);
+            // The baseline follows slowly and never upwards faster than the smoothed latency
+            baseline = Math.min(latency, baseline + BASELINE_ALPHA * (durationMillis - baseline));
+            return latency > baseline * tolerance;
+        }
+
+        synchronized void recordRejection() {
+            rejections++;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> values = new HashMap<>();
+            values.put("latency", Math.round(latency));
+            values.put("baseline", Math.round(baseline));
+            values.put("executions", executions);
+            values.put("failures", failures);
+            values.put("rejections", rejections);
+            return values;
+        }
+    }
+}
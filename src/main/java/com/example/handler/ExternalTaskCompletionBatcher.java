@@ -0,0 +1,245 @@
+package com.example.handler;
+
+import com.example.client.CamundaEngineClient;
+import com.example.config.ExternalTaskEnabledCondition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reports external task outcomes (complete / handleFailure) to the engine.
+ * With batching enabled, outcomes arriving within a short window are coalesced:
+ * with the in-process engine a batch is applied in a single transaction, with a remote engine
+ * its requests are sent in parallel without holding worker threads.
+ * Every outcome gets its own acknowledgement future, so callers still see per-task errors.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Conditional(ExternalTaskEnabledCondition.class)
+public class ExternalTaskCompletionBatcher {
+
+    private final ObjectProvider<CamundaEngineClient> engineClientProvider;
+
+    @Value("${camunda.external-task.completion.batching:false}")
+    private boolean batching;
+
+    @Value("${camunda.external-task.completion.window:10}")
+    private long window;
+
+    @Value("${camunda.external-task.completion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${camunda.external-task.completion.parallelism:8}")
+    private int parallelism;
+
+    private final BlockingQueue<Outcome> queue = new LinkedBlockingQueue<>();
+    private ExecutorService remoteExecutor;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (!batching) {
+            return;
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        remoteExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "external-task-completion-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "external-task-completion-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("External task completion batching enabled: window={}ms, batchSize={}", window, batchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (flusher == null) {
+            return;
+        }
+
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Report whatever was still queued
+        List<Outcome> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+
+        remoteExecutor.shutdown();
+        try {
+            if (!remoteExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                remoteExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            remoteExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Completes a task.
+     *
+     * @param externalTask Locked task
+     * @param externalTaskService Service of the client that locked the task
+     * @param variables Process variables to set, may be null
+     * @param localVariables Variables to set on the task's execution, may be null
+     * @return Future completing once the engine accepted the completion
+     */
+    public CompletableFuture<Void> complete(ExternalTask externalTask, ExternalTaskService externalTaskService,
+                                            Map<String, Object> variables, Map<String, Object> localVariables) {
+        return submit(new Outcome(
+                () -> {
+                    if (variables != null || localVariables != null) {
+                        externalTaskService.complete(externalTask, variables, localVariables);
+                    } else {
+                        externalTaskService.complete(externalTask);
+                    }
+                },
+                engine -> engine.completeExternalTask(externalTask.getId(), externalTask.getWorkerId(),
+                        variables, localVariables)));
+    }
+
+    /**
+     * Reports a task failure.
+     *
+     * @return Future completing once the engine accepted the failure
+     */
+    public CompletableFuture<Void> handleFailure(ExternalTask externalTask, ExternalTaskService externalTaskService,
+                                                 String errorMessage, String errorDetails, int retries, long retryTimeout) {
+        return submit(new Outcome(
+                () -> externalTaskService.handleFailure(externalTask, errorMessage, errorDetails, retries, retryTimeout),
+                engine -> engine.handleExternalTaskFailure(externalTask.getId(), externalTask.getWorkerId(),
+                        errorMessage, errorDetails, retries, retryTimeout)));
+    }
+
+    /**
+     * Number of outcomes waiting to be reported
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private CompletableFuture<Void> submit(Outcome outcome) {
+        if (!running) {
+            // Batching disabled or shutting down: report through the client that locked the task
+            outcome.applyDirectly(null);
+            return outcome.ack;
+        }
+        queue.add(outcome);
+        return outcome.ack;
+    }
+
+    private void flushLoop() {
+        List<Outcome> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Outcome first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                long windowEnd = System.currentTimeMillis() + window;
+                while (batch.size() < batchSize) {
+                    long wait = windowEnd - System.currentTimeMillis();
+                    Outcome next = wait > 0 ? queue.poll(wait, TimeUnit.MILLISECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error flushing external task outcomes", e);
+            } finally {
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+    }
+
+    private void flush(List<Outcome> batch) {
+        CamundaEngineClient engineClient = engineClientProvider.getIfAvailable();
+        log.debug("Reporting {} external task outcomes", batch.size());
+
+        if (engineClient == null) {
+            batch.forEach(outcome -> remoteExecutor.execute(() -> outcome.applyDirectly(null)));
+            return;
+        }
+
+        try {
+            engineClient.executeInTransaction(() -> batch.forEach(outcome -> outcome.local.accept(engineClient)));
+            batch.forEach(outcome -> outcome.ack.complete(null));
+        } catch (Exception e) {
+            // One outcome failed and rolled back the batch; apply them one by one to isolate it
+            log.warn("Batch of {} external task outcomes failed, reporting individually: {}", batch.size(), e.getMessage());
+            batch.forEach(outcome -> outcome.applyDirectly(engineClient));
+        }
+    }
+
+    /**
+     * Pending outcome: how to report it remotely and in-process, and its acknowledgement
+     */
+    private static final class Outcome {
+        private final Runnable remote;
+        private final Consumer<CamundaEngineClient> local;
+        private final CompletableFuture<Void> ack = new CompletableFuture<>();
+
+        Outcome(Runnable remote, Consumer<CamundaEngineClient> local) {
+            this.remote = remote;
+            this.local = local;
+        }
+
+        void applyDirectly(CamundaEngineClient engineClient) {
+            try {
+                if (engineClient != null) {
+                    local.accept(engineClient);
+                } else {
+                    remote.run();
+                }
+                ack.complete(null);
+            } catch (Exception e) {
+                ack.completeExceptionally(e);
+            }
+        }
+    }
+}
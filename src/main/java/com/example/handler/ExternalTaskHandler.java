@@ -3,20 +3,39 @@ package com.example.handler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.camunda.bpm.client.ExternalTaskClient;
+import org.camunda.bpm.client.topic.TopicSubscription;
 import org.camunda.bpm.client.topic.TopicSubscriptionBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import com.example.config.ExternalTaskClientFactory;
+import com.example.exception.CircuitBreakerOpenException;
+import com.example.exception.HostLimitExceededException;
+import com.example.handler.AdaptiveFetchController.Outcome;
 import com.example.repository.TaskApiMappingRepository;
+import com.example.service.TaskMappingChangedEvent;
+import com.example.service.TaskMappingRegistry;
+import com.example.model.dto.TaskMappingSnapshot;
 import com.example.model.entity.TaskApiMapping;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.HashSet;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -28,6 +47,12 @@ public class ExternalTaskHandler {
     private final ExternalTaskClient externalTaskClient;
     private final TaskExecutionService taskExecutionService;
     private final TaskApiMappingRepository taskApiMappingRepository;
+    private final TaskMappingRegistry taskMappingRegistry;
+    private final ExternalTaskWorkerPool workerPool;
+    private final ExternalTaskCompletionBatcher completionBatcher;
+    private final ExternalTaskLockRenewer lockRenewer;
+    private final AdaptiveFetchController adaptiveFetchController;
+    private final ExternalTaskClientFactory externalTaskClientFactory;
     
     @Value("${camunda.external-task.enabled:false}")
     private boolean externalTaskEnabled;
@@ -35,8 +60,27 @@ public class ExternalTaskHandler {
     @Value("${camunda.external-task.lock-duration:20000}")
     private long lockDuration;
     
+    @Value("${camunda.external-task.retry-count:3}")
+    private int retryCount;
+    
+    @Value("${camunda.external-task.retry-timeout:60000}")
+    private long retryTimeout;
+    
+    // Fetch only the variables the mapping templates reference instead of all process variables
+    @Value("${camunda.external-task.variable-filter:true}")
+    private boolean variableFilter;
+    
     // Watch active subscriptions
-    private final Map<String, Boolean> activeSubscriptions = new ConcurrentHashMap<>();
+    private final Map<String, TopicSubscriptionState> activeSubscriptions = new ConcurrentHashMap<>();
+    
+    // Topics closed on request, not reopened by refreshes
+    private final Set<String> pausedTopics = ConcurrentHashMap.newKeySet();
+    
+    // Topics closed while their bulkhead is full, reopened once it can take tasks again
+    private final Set<String> throttledTopics = ConcurrentHashMap.newKeySet();
+    
+    // Dedicated clients of worker groups
+    private final Map<String, ExternalTaskClient> groupClients = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void subscribeToTopics() {
@@ -57,6 +101,15 @@ public class ExternalTaskHandler {
         }
     }
     
+    @PreDestroy
+    public void stopGroupClients() {
+        groupClients.forEach((workerGroup, client) -> {
+            log.info("Stopping external task client of worker group: {}", workerGroup);
+            client.stop();
+        });
+        groupClients.clear();
+    }
+    
     /**
      * Returns active subscriptions
      * @return List of active subscriptions
@@ -65,54 +118,317 @@ public class ExternalTaskHandler {
         return activeSubscriptions.keySet();
     }
     
+    /**
+     * Returns worker pool utilization
+     * @return Pool size, in-flight and free slot counts
+     */
+    public Map<String, Object> getWorkerStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("concurrent", workerPool.isConcurrent());
+        status.put("async", workerPool.isAsync());
+        status.put("poolSize", workerPool.getPoolSize());
+        status.put("inFlight", workerPool.getInFlightCount());
+        status.put("availableCapacity", workerPool.getAvailableCapacity());
+        status.put("bulkheads", workerPool.getBulkheadStatus());
+        status.put("workerGroups", groupClients.keySet());
+        status.put("throttledTopics", throttledTopics);
+        status.put("pendingCompletions", completionBatcher.getPendingCount());
+        status.put("lockRenewal", lockRenewer.getStatus());
+        status.put("adaptive", adaptiveFetchController.getStatus());
+        return status;
+    }
+    
     /**
      * Refreshes all topic subscriptions
-     * This method can be called periodically or triggered when a new BPMN process is deployed
+     * This method can be called periodically or triggered when a new BPMN process is deployed.
+     * New topics are subscribed, topics whose lock duration, worker group or fetched variables changed are reopened,
+     * topics without a mapping are closed and paused topics stay closed.
      */
-    public void refreshSubscriptions() {
+    public synchronized void refreshSubscriptions() {
         try {
             // Get all task mappings from database
             List<TaskApiMapping> allMappings = taskApiMappingRepository.findAll();
             
             // Collect all task IDs (these will be used as topic names)
-            Set<String> allTaskIds = allMappings.stream()
-                    .map(TaskApiMapping::getTaskId)
-                    .filter(taskId -> taskId != null && !taskId.isEmpty())
-                    .collect(Collectors.toSet());
+            Map<String, TaskApiMapping> mappingsByTopic = allMappings.stream()
+                    .filter(mapping -> mapping.getTaskId() != null && !mapping.getTaskId().isEmpty())
+                    .collect(Collectors.toMap(TaskApiMapping::getTaskId, Function.identity(), (first, second) -> first));
+            Set<String> allTaskIds = mappingsByTopic.keySet();
             
             log.info("Found {} task mappings in database", allTaskIds.size());
             
-            // Create subscription for each task ID (if it doesn't already exist)
-            for (String taskId : allTaskIds) {
-                if (!activeSubscriptions.containsKey(taskId)) {
-                    log.info("Creating new subscription for topic: {}", taskId);
-                    
-                    TopicSubscriptionBuilder subscriptionBuilder = externalTaskClient.subscribe(taskId)
-                        .lockDuration(lockDuration)
-                        .handler(this::handleExternalTask);
-                    
-                    subscriptionBuilder.open();
-                    activeSubscriptions.put(taskId, true);
-                    
-                    log.info("Successfully subscribed to topic: {}", taskId);
+            // Create subscription for each task ID, or reopen it if its settings changed
+            for (TaskApiMapping mapping : mappingsByTopic.values()) {
+                String taskId = mapping.getTaskId();
+                workerPool.configureTopic(taskId, mapping.getMaxConcurrency(), mapping.getQueueCapacity());
+                
+                if (pausedTopics.contains(taskId)) {
+                    continue;
+                }
+                if (throttledTopics.contains(taskId)) {
+                    if (!workerPool.hasCapacity(taskId)) {
+                        continue;
+                    }
+                    throttledTopics.remove(taskId);
+                }
+                
+                TopicSubscriptionState current = activeSubscriptions.get(taskId);
+                long topicLockDuration = mapping.getLockDuration() != null ? mapping.getLockDuration() : lockDuration;
+                Set<String> topicVariables = resolveFetchVariables(taskId, allMappings);
+                if (current != null && current.matches(topicLockDuration, mapping.getWorkerGroup(), topicVariables)) {
+                    continue;
                 }
+                
+                if (current != null) {
+                    log.info("Settings of topic {} changed, reopening subscription", taskId);
+                    current.subscription().close();
+                    activeSubscriptions.remove(taskId);
+                }
+                openSubscription(mapping, topicLockDuration, topicVariables, mappingsByTopic.values());
             }
             
-            // Unused topic subscriptions (not used in the current process)
+            // Close subscriptions of topics that no longer have a mapping, so they drop out of fetch-and-lock
             Set<String> unusedTopics = new HashSet<>(activeSubscriptions.keySet());
             unusedTopics.removeAll(allTaskIds);
-            
-            if (!unusedTopics.isEmpty()) {
-                log.warn("Found {} unused topic subscriptions that might need cleanup: {}", 
-                        unusedTopics.size(), unusedTopics);
+            for (String topicName : unusedTopics) {
+                log.info("Closing subscription of unused topic: {}", topicName);
+                activeSubscriptions.remove(topicName).subscription().close();
+                workerPool.configureTopic(topicName, null, null);
             }
+            pausedTopics.retainAll(allTaskIds);
+            throttledTopics.retainAll(allTaskIds);
+            
+            stopUnusedGroupClients();
             
         } catch (Exception e) {
             log.error("Error refreshing topic subscriptions", e);
         }
     }
+    
+    /**
+     * Stops fetching a topic. Tasks already fetched still run to completion.
+     *
+     * @param topicName Topic name
+     * @return False if the topic has no subscription
+     */
+    public synchronized boolean pauseTopic(String topicName) {
+        TopicSubscriptionState current = activeSubscriptions.remove(topicName);
+        if (current == null) {
+            if (throttledTopics.remove(topicName)) {
+                pausedTopics.add(topicName);
+                return true;
+            }
+            return pausedTopics.contains(topicName);
+        }
+        
+        current.subscription().close();
+        pausedTopics.add(topicName);
+        stopUnusedGroupClients();
+        log.info("Paused topic: {}", topicName);
+        return true;
+    }
+    
+    /**
+     * Resumes fetching a paused topic with its current mapping settings.
+     *
+     * @param topicName Topic name
+     * @return False if the topic was not paused
+     */
+    public synchronized boolean resumeTopic(String topicName) {
+        if (!pausedTopics.remove(topicName)) {
+            return false;
+        }
+        
+        log.info("Resuming topic: {}", topicName);
+        refreshSubscriptions();
+        return true;
+    }
+    
+    /**
+     * Returns paused topics
+     */
+    public Set<String> getPausedTopics() {
+        return pausedTopics;
+    }
+    
+    /**
+     * Stops fetching a topic whose bulkhead is full and reopens it as soon as the bulkhead can take tasks again,
+     * so the shared client does not keep fetching tasks of a saturated topic
+     */
+    private synchronized void throttleTopic(String topicName) {
+        if (pausedTopics.contains(topicName) || !throttledTopics.add(topicName)) {
+            return;
+        }
+        
+        TopicSubscriptionState current = activeSubscriptions.remove(topicName);
+        if (current != null) {
+            current.subscription().close();
+        }
+        log.warn("Bulkhead of topic {} is full, stopped fetching it until a slot is free", topicName);
+        workerPool.whenCapacityAvailable(topicName, () -> resumeThrottledTopic(topicName));
+    }
+    
+    private synchronized void resumeThrottledTopic(String topicName) {
+        if (!throttledTopics.contains(topicName)) {
+            return;
+        }
+        log.info("Bulkhead of topic {} has free capacity, fetching it again", topicName);
+        refreshSubscriptions();
+    }
+    
+    /**
+     * Reopens subscriptions after a task mapping was created, updated or deleted
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskMappingChanged(TaskMappingChangedEvent event) {
+        if (externalTaskEnabled) {
+            refreshSubscriptions();
+        }
+    }
+    
+    private void openSubscription(TaskApiMapping mapping, long topicLockDuration, Set<String> topicVariables,
+                                  Collection<TaskApiMapping> allMappings) {
+        String taskId = mapping.getTaskId();
+        log.info("Creating new subscription for topic: {} (lock duration {}ms, variables {})",
+                taskId, topicLockDuration, topicVariables != null ? topicVariables : "all");
+        
+        TopicSubscriptionBuilder subscriptionBuilder = resolveClient(mapping, allMappings)
+            .subscribe(taskId)
+            .lockDuration(topicLockDuration)
+            .handler(this::dispatchExternalTask);
+        if (topicVariables != null) {
+            subscriptionBuilder.variables(topicVariables.toArray(new String[0]));
+        }
+        
+        TopicSubscription subscription = subscriptionBuilder.open();
+        activeSubscriptions.put(taskId,
+                new TopicSubscriptionState(subscription, topicLockDuration, mapping.getWorkerGroup(), topicVariables));
+        
+        log.info("Successfully subscribed to topic: {}", taskId);
+    }
+    
+    /**
+     * Returns the variables fetched for a topic.
+     * A topic may be mapped in several processes, so the variables of all its mappings are combined.
+     *
+     * @return Variable names, or null if all variables are fetched
+     */
+    private Set<String> resolveFetchVariables(String taskId, List<TaskApiMapping> allMappings) {
+        if (!variableFilter) {
+            return null;
+        }
+        
+        Set<String> names = new TreeSet<>();
+        for (TaskApiMapping mapping : allMappings) {
+            if (!taskId.equals(mapping.getTaskId())) {
+                continue;
+            }
+            Set<String> mappingVariables = taskMappingRegistry.getFetchVariables(mapping);
+            if (mappingVariables == null) {
+                return null;
+            }
+            names.addAll(mappingVariables);
+        }
+        return names;
+    }
+    
+    /**
+     * Stops dedicated clients of worker groups that have no open subscription left
+     */
+    private void stopUnusedGroupClients() {
+        Set<String> usedGroups = activeSubscriptions.values().stream()
+                .map(TopicSubscriptionState::workerGroup)
+                .filter(workerGroup -> workerGroup != null && !workerGroup.isEmpty())
+                .collect(Collectors.toSet());
+        
+        groupClients.keySet().removeIf(workerGroup -> {
+            if (usedGroups.contains(workerGroup)) {
+                return false;
+            }
+            log.info("Stopping external task client of unused worker group: {}", workerGroup);
+            groupClients.get(workerGroup).stop();
+            return true;
+        });
+    }
 
-    private void handleExternalTask(org.camunda.bpm.client.task.ExternalTask externalTask,
+    /**
+     * Returns the client that fetches the topic of a mapping.
+     * Mappings with a worker group get a dedicated client shared by all topics of that group,
+     * sized to fetch as many tasks as the group's bulkheads can hold.
+     */
+    private ExternalTaskClient resolveClient(TaskApiMapping mapping, Collection<TaskApiMapping> allMappings) {
+        String workerGroup = mapping.getWorkerGroup();
+        if (workerGroup == null || workerGroup.isEmpty()) {
+            return externalTaskClient;
+        }
+        
+        return groupClients.computeIfAbsent(workerGroup, group -> {
+            int groupCapacity = allMappings.stream()
+                    .filter(groupMapping -> group.equals(groupMapping.getWorkerGroup()))
+                    .filter(groupMapping -> groupMapping.getMaxConcurrency() != null)
+                    .mapToInt(groupMapping -> groupMapping.getMaxConcurrency()
+                            + (groupMapping.getQueueCapacity() != null ? groupMapping.getQueueCapacity() : 0))
+                    .sum();
+            
+            log.info("Creating dedicated external task client for worker group: {}", group);
+            return externalTaskClientFactory.createForGroup(group, groupCapacity > 0 ? groupCapacity : null);
+        });
+    }
+
+    /**
+     * Hands a fetched task to the worker pool.
+     * In concurrent mode this blocks the polling thread only while every worker slot is busy.
+     * A task rejected by a full topic bulkhead keeps its lock until it expires, so it is not fetched again right away,
+     * and the topic is not fetched until its bulkhead has room again.
+     * In async mode topics without a bulkhead run non-blocking and are completed from the response callback.
+     * The task lock is extended while the task waits for a slot and while it runs.
+     */
+    private void dispatchExternalTask(org.camunda.bpm.client.task.ExternalTask externalTask,
+                                      org.camunda.bpm.client.task.ExternalTaskService externalTaskService) {
+        String topicName = externalTask.getTopicName();
+        
+        // Keep the lock alive until the outcome has been reported
+        Runnable releaseLock = lockRenewer.track(externalTask, externalTaskService);
+
+        if (workerPool.isAsync() && !workerPool.hasBulkhead(topicName)) {
+            workerPool.submitAsync(() -> runMeasured(topicName, releaseLock,
+                    () -> handleExternalTaskAsync(externalTask, externalTaskService)));
+            return;
+        }
+        workerPool.submit(topicName,
+                () -> runMeasured(topicName, releaseLock,
+                        () -> handleExternalTask(externalTask, externalTaskService)),
+                () -> {
+                    releaseLock.run();
+                    adaptiveFetchController.recordRejection(topicName);
+                    throttleTopic(topicName);
+                });
+    }
+
+    /**
+     * Starts an execution and, once its outcome is reported, releases the lock and feeds the adaptive controller.
+     * Latency is measured from here, when the task got its slot, so waiting for a slot is not read as congestion.
+     */
+    private CompletableFuture<Outcome> runMeasured(String topicName, Runnable releaseLock,
+                                                   Supplier<CompletableFuture<Outcome>> execution) {
+        long startedAt = System.currentTimeMillis();
+        CompletableFuture<Outcome> outcome;
+        try {
+            outcome = execution.get();
+        } catch (RuntimeException e) {
+            outcome = CompletableFuture.failedFuture(e);
+        }
+        return outcome.whenComplete((result, error) -> {
+            releaseLock.run();
+            adaptiveFetchController.recordExecution(topicName, System.currentTimeMillis() - startedAt,
+                    error == null ? result : Outcome.ofFailure(error));
+        });
+    }
+
+    /**
+     * Executes a task on the calling thread, the returned future completes once its outcome has been reported
+     */
+    private CompletableFuture<Outcome> handleExternalTask(org.camunda.bpm.client.task.ExternalTask externalTask,
                                   org.camunda.bpm.client.task.ExternalTaskService externalTaskService) {
         String taskId = externalTask.getActivityId();
         String processInstanceId = externalTask.getProcessInstanceId();
@@ -127,43 +443,82 @@ public class ExternalTaskHandler {
             log.info("Task variables received from process instance: {}", variables);
             
             // Find task mapping
-            taskApiMappingRepository.findByTaskId(taskId)
-                .ifPresentOrElse(
-                    mapping -> {
-                        try {
-                            // Execute the task using mapping
-
-                            Map<String, Object> result = taskExecutionService.executeTask(
-                                mapping.getBpmnProcess() != null ? mapping.getBpmnProcess().getId() : null, 
-                                taskId, 
-                                variables
-                            );
-                            
-                            // Log the result variables for debugging
-                            log.info("Task execution result variables to be sent back to process instance: {}", result);
-                            
-                            // Complete the task with results
-                            // Ensure all variables are passed back to the process instance
-                            externalTaskService.complete(externalTask, result);
-                            log.info("Successfully completed task: {} (topic: {}) for process instance: {}", 
-                                taskId, topicName, processInstanceId);
-                        } catch (Exception e) {
-                            handleTaskError(externalTask, externalTaskService, e);
-                        }
-                    },
-                    () -> {
-                        log.warn("No task mapping found for task: {} (topic: {}) in process: {}", 
-                            taskId, topicName, processInstanceId);
-                        // Complete the task without executing any API call
-                        externalTaskService.complete(externalTask);
-                    }
-                );
+            Optional<TaskMappingSnapshot> mapping = findMapping(externalTask);
+            if (mapping.isEmpty()) {
+                log.warn("No task mapping found for task: {} (topic: {}) in process: {}", 
+                    taskId, topicName, processInstanceId);
+                // Complete the task without executing any API call
+                return completeTask(externalTask, externalTaskService, null, false);
+            }
+            
+            // Execute the task using mapping
+            Map<String, Object> result = taskExecutionService.executeTask(mapping.get(), variables);
+            
+            // Log the result variables for debugging
+            log.info("Task execution result variables to be sent back to process instance: {}", result);
+            
+            // Complete the task with results, only new and changed variables are passed back
+            return completeTask(externalTask, externalTaskService, result, mapping.get().isLocalVariables());
         } catch (Exception e) {
-            handleTaskError(externalTask, externalTaskService, e);
+            return handleTaskError(externalTask, externalTaskService, e);
         }
     }
 
-    private void handleTaskError(org.camunda.bpm.client.task.ExternalTask externalTask, 
+    /**
+     * Non-blocking variant of {@link #handleExternalTask}, the returned future completes once the task
+     * has been completed or failed in the engine
+     */
+    private CompletableFuture<Outcome> handleExternalTaskAsync(org.camunda.bpm.client.task.ExternalTask externalTask,
+                                                         org.camunda.bpm.client.task.ExternalTaskService externalTaskService) {
+        String taskId = externalTask.getActivityId();
+        String topicName = externalTask.getTopicName();
+        String processInstanceId = externalTask.getProcessInstanceId();
+
+        log.info("Handling external task asynchronously: {} (topic: {}) for process instance: {}",
+                taskId, topicName, processInstanceId);
+
+        try {
+            Optional<TaskMappingSnapshot> mapping = findMapping(externalTask);
+            if (mapping.isEmpty()) {
+                log.warn("No task mapping found for task: {} (topic: {}) in process: {}",
+                    taskId, topicName, processInstanceId);
+                return completeTask(externalTask, externalTaskService, null, false);
+            }
+
+            return taskExecutionService.executeTaskAsync(mapping.get(), externalTask.getAllVariables())
+                    .handle((result, error) -> error != null
+                            ? handleTaskError(externalTask, externalTaskService,
+                                    error instanceof Exception exception ? exception : new RuntimeException(error))
+                            : completeTask(externalTask, externalTaskService, result, mapping.get().isLocalVariables()))
+                    .thenCompose(Function.identity());
+        } catch (Exception e) {
+            return handleTaskError(externalTask, externalTaskService, e);
+        }
+    }
+
+    /**
+     * Reports a successful task through the completion batcher; a rejected completion is reported as failure.
+     * Result variables are set on the task's execution when the mapping asks for local variables.
+     */
+    private CompletableFuture<Outcome> completeTask(org.camunda.bpm.client.task.ExternalTask externalTask,
+                                                 org.camunda.bpm.client.task.ExternalTaskService externalTaskService,
+                                                 Map<String, Object> result, boolean local) {
+        Map<String, Object> variables = result == null || result.isEmpty() ? null : result;
+        return completionBatcher.complete(externalTask, externalTaskService,
+                        local ? null : variables, local ? variables : null)
+                .handle((ignored, error) -> {
+                    if (error == null) {
+                        log.info("Successfully completed task: {} (topic: {}) for process instance: {}",
+                            externalTask.getActivityId(), externalTask.getTopicName(), externalTask.getProcessInstanceId());
+                        return CompletableFuture.completedFuture(Outcome.HEALTHY);
+                    }
+                    return handleTaskError(externalTask, externalTaskService,
+                            error instanceof Exception exception ? exception : new RuntimeException(error));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<Outcome> handleTaskError(org.camunda.bpm.client.task.ExternalTask externalTask, 
                                org.camunda.bpm.client.task.ExternalTaskService externalTaskService, 
                                Exception e) {
         Map<String, Object> errorVariables = new HashMap<>();
@@ -171,16 +526,98 @@ public class ExternalTaskHandler {
         errorVariables.put("errorTimestamp", System.currentTimeMillis());
         errorVariables.put("errorDetails", e.toString());
         
-        externalTaskService.handleFailure(externalTask,
-                e.getMessage(),
-                e.getStackTrace().toString(),
-                3, // retries
-                60000L); // retry timeout in milliseconds
+        CircuitBreakerOpenException breakerOpen = findCause(e, CircuitBreakerOpenException.class);
+        HostLimitExceededException hostLimitExceeded = findCause(e, HostLimitExceededException.class);
+        // Engine retries are configured apart from the HTTP retries already spent inside the execution
+        Optional<TaskMappingSnapshot> mapping = findMapping(externalTask);
+        int maxRetries = mapping.map(TaskMappingSnapshot::getIncidentRetries).orElse(retryCount);
+        long failureRetryTimeout = mapping.map(TaskMappingSnapshot::getIncidentRetryTimeout).orElse(retryTimeout);
+        Integer currentRetries = externalTask.getRetries();
+        
+        if (breakerOpen != null) {
+            // The partner API was not called: keep the remaining retries and come back when the breaker half-opens
+            log.warn("Circuit breaker open for task: {} (topic: {}), retrying in {}ms",
+                    externalTask.getActivityId(), externalTask.getTopicName(), breakerOpen.getRemainingOpenMillis());
+            return reportFailure(externalTask, Outcome.SKIPPED, completionBatcher.handleFailure(externalTask, externalTaskService,
+                    e.getMessage(),
+                    null,
+                    currentRetries != null ? currentRetries : maxRetries,
+                    breakerOpen.getRemainingOpenMillis()));
+        }
+        if (hostLimitExceeded != null) {
+            // Never sent either: keep the remaining retries and come back once requests ahead of it have drained
+            log.warn("No free request slot for task: {} (topic: {}), retrying in {}ms",
+                    externalTask.getActivityId(), externalTask.getTopicName(), hostLimitExceeded.getWaitedMillis());
+            return reportFailure(externalTask, Outcome.SKIPPED, completionBatcher.handleFailure(externalTask, externalTaskService,
+                    e.getMessage(),
+                    null,
+                    currentRetries != null ? currentRetries : maxRetries,
+                    hostLimitExceeded.getWaitedMillis()));
+        }
         
         log.error("Error handling task: {} (topic: {}) for process instance: {}", 
             externalTask.getActivityId(), 
             externalTask.getTopicName(),
             externalTask.getProcessInstanceId(), 
             e);
+        
+        return reportFailure(externalTask, Outcome.ofFailure(e), completionBatcher.handleFailure(externalTask, externalTaskService,
+                e.getMessage(),
+                stackTrace(e),
+                currentRetries != null ? Math.max(currentRetries - 1, 0) : maxRetries,
+                failureRetryTimeout));
+    }
+
+    /**
+     * Logs failures that could not be reported; the task lock then expires and the task is fetched again.
+     * The returned future completes with the outcome of the failed execution.
+     */
+    private CompletableFuture<Outcome> reportFailure(org.camunda.bpm.client.task.ExternalTask externalTask,
+                                                     Outcome outcome, CompletableFuture<Void> ack) {
+        return ack.handle((ignored, error) -> {
+            if (error != null) {
+                log.error("Could not report failure of task: {} (topic: {})",
+                        externalTask.getActivityId(), externalTask.getTopicName(), error);
+            }
+            return outcome;
+        });
+    }
+
+    /**
+     * Finds the mapping of a task within its process, so the same activity id in another process does not match
+     */
+    private Optional<TaskMappingSnapshot> findMapping(org.camunda.bpm.client.task.ExternalTask externalTask) {
+        return taskMappingRegistry.findByProcessKey(externalTask.getProcessDefinitionKey(), externalTask.getActivityId());
+    }
+
+    private <T extends Throwable> T findCause(Throwable error, Class<T> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+
+    private String stackTrace(Throwable error) {
+        StringWriter writer = new StringWriter();
+        error.printStackTrace(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    /**
+     * Open subscription of a topic and the settings it was opened with
+     */
+    private record TopicSubscriptionState(TopicSubscription subscription, long lockDuration, String workerGroup,
+                                          Set<String> variables) {
+        boolean matches(long otherLockDuration, String otherWorkerGroup, Set<String> otherVariables) {
+            return lockDuration == otherLockDuration
+                    && Objects.equals(normalize(workerGroup), normalize(otherWorkerGroup))
+                    && Objects.equals(variables, otherVariables);
+        }
+
+        private static String normalize(String group) {
+            return group == null || group.isEmpty() ? null : group;
+        }
     }
-} 
\ No newline at end of file
+}
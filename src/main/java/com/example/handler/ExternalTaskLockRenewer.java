@@ -0,0 +1,232 @@
+package com.example.handler;
+
+import com.example.config.ExternalTaskEnabledCondition;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.client.task.ExternalTask;
+import org.camunda.bpm.client.task.ExternalTaskService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Extends the locks of external tasks while they are being worked on.
+ * Tracked tasks sit in a hashed timer wheel driven by a single timer thread; each tick only looks at the
+ * tasks due in that slot, and extendLock calls run on a small executor so a slow engine cannot stall the timer.
+ * This allows short default lock durations without another worker picking up a task that is still running.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Conditional(ExternalTaskEnabledCondition.class)
+public class ExternalTaskLockRenewer {
+
+    private final AdaptiveFetchController adaptiveFetchController;
+
+    @Value("${camunda.external-task.lock-renewal.enabled:true}")
+    private boolean enabled;
+
+    @Value("${camunda.external-task.lock-duration:20000}")
+    private long lockDuration;
+
+    // Lock extension per renewal, defaults to the subscription lock duration
+    @Value("${camunda.external-task.lock-renewal.extension:${camunda.external-task.lock-duration:20000}}")
+    private long extension;
+
+    @Value("${camunda.external-task.lock-renewal.tick:500}")
+    private long tickDuration;
+
+    @Value("${camunda.external-task.lock-renewal.threads:2}")
+    private int threads;
+
+    private static final int WHEEL_SIZE = 512;
+
+    private final List<Queue<TrackedLock>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final AtomicInteger trackedCount = new AtomicInteger();
+    private final AtomicInteger renewalCount = new AtomicInteger();
+    private ScheduledExecutorService timer;
+    private ExecutorService renewalExecutor;
+    private long startTime;
+    private volatile long currentTick;
+    // Last tick swept, only used by the timer thread
+    private long lastTick;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("External task lock renewal is disabled");
+            return;
+        }
+
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        startTime = System.currentTimeMillis();
+
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "external-task-lock-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger counter = new AtomicInteger();
+        renewalExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "external-task-lock-renewer-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::tick, tickDuration, tickDuration, TimeUnit.MILLISECONDS);
+        log.info("External task lock renewal enabled: extension={}ms, tick={}ms", extension, tickDuration);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (timer != null) {
+            timer.shutdownNow();
+            renewalExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Starts renewing the lock of a task until the returned handle is released.
+     *
+     * @param externalTask Locked task
+     * @param externalTaskService Service of the client that locked the task
+     * @return Handle to release once the task is completed, failed or unlocked
+     */
+    public Runnable track(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+        if (timer == null) {
+            return () -> { };
+        }
+
+        long lockExpiresAt = externalTask.getLockExpirationTime() != null
+                ? externalTask.getLockExpirationTime().getTime()
+                : System.currentTimeMillis() + lockDuration;
+        TrackedLock lock = new TrackedLock(externalTask, externalTaskService);
+        trackedCount.incrementAndGet();
+        schedule(lock, lockExpiresAt);
+        return lock::release;
+    }
+
+    /**
+     * Returns the number of tracked tasks and renewals performed
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", timer != null);
+        status.put("tracked", trackedCount.get());
+        status.put("renewals", renewalCount.get());
+        return status;
+    }
+
+    /**
+     * Schedules the renewal ahead of expiry, leaving a third of the extension (at least two ticks) as margin
+     */
+    private void schedule(TrackedLock lock, long lockExpiresAt) {
+        long margin = Math.max(extensionFor(lock.externalTask.getTopicName()) / 3, 2 * tickDuration);
+        long dueTick = Math.max((lockExpiresAt - margin - startTime) / tickDuration, currentTick + 1);
+        lock.dueTick = dueTick;
+        wheel.get((int) (dueTick % WHEEL_SIZE)).add(lock);
+    }
+
+    /**
+     * With adaptive control the extension follows the topic's observed latency
+     */
+    private long extensionFor(String topicName) {
+        return adaptiveFetchController.isEnabled() ? adaptiveFetchController.getLockDuration(topicName) : extension;
+    }
+
+    /**
+     * Sweeps every slot since the last run, so slots passed during a GC pause or timer stall are not skipped.
+     * The last swept slot is checked again for tasks added while the timer was moving on; a stall longer than
+     * the wheel sweeps each slot once.
+     */
+    private void tick() {
+        long tick = (System.currentTimeMillis() - startTime) / tickDuration;
+        currentTick = tick;
+        try {
+            for (long slot = Math.max(lastTick, tick - WHEEL_SIZE + 1); slot <= tick; slot++) {
+                fire(wheel.get((int) (slot % WHEEL_SIZE)), tick);
+            }
+            if (tick - lastTick > 1) {
+                log.debug("Lock renewal timer caught up {} ticks", tick - lastTick);
+            }
+            lastTick = tick;
+        } catch (Exception e) {
+            log.error("Error renewing external task locks", e);
+        }
+    }
+
+    private void fire(Queue<TrackedLock> slot, long tick) {
+        Iterator<TrackedLock> iterator = slot.iterator();
+        while (iterator.hasNext()) {
+            TrackedLock lock = iterator.next();
+            if (!lock.active) {
+                iterator.remove();
+            } else if (lock.dueTick <= tick) {
+                iterator.remove();
+                try {
+                    renewalExecutor.execute(() -> renew(lock));
+                } catch (RejectedExecutionException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void renew(TrackedLock lock) {
+        if (!lock.active) {
+            return;
+        }
+
+        try {
+            long lockExtension = extensionFor(lock.externalTask.getTopicName());
+            lock.externalTaskService.extendLock(lock.externalTask, lockExtension);
+            renewalCount.incrementAndGet();
+            log.debug("Extended lock of task {} (topic: {}) by {}ms",
+                    lock.externalTask.getId(), lock.externalTask.getTopicName(), lockExtension);
+            if (lock.active) {
+                schedule(lock, System.currentTimeMillis() + lockExtension);
+            }
+        } catch (Exception e) {
+            // The task was completed, unlocked or taken over meanwhile
+            log.warn("Could not extend lock of task {} (topic: {}): {}",
+                    lock.externalTask.getId(), lock.externalTask.getTopicName(), e.getMessage());
+            lock.release();
+        }
+    }
+
+    private class TrackedLock {
+        private final ExternalTask externalTask;
+        private final ExternalTaskService externalTaskService;
+        private volatile boolean active = true;
+        private volatile long dueTick;
+
+        TrackedLock(ExternalTask externalTask, ExternalTaskService externalTaskService) {
+            this.externalTask = externalTask;
+            this.externalTaskService = externalTaskService;
+        }
+
+        synchronized void release() {
+            if (active) {
+                active = false;
+                trackedCount.decrementAndGet();
+            }
+        }
+    }
+}
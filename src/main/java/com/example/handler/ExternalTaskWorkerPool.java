@@ -0,0 +1,426 @@
+package com.example.handler;
+
+import com.example.config.ExternalTaskEnabledCondition;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Bounded executor for external task work.
+ * In concurrent mode the polling thread only dispatches fetched tasks here and blocks while all slots are busy,
+ * so the client never holds more in-flight work than the pool can run.
+ * Topics with a bulkhead (TaskApiMapping.maxConcurrency) run on their own bounded executor and queue instead,
+ * so a slow partner API can only exhaust its own slots.
+ * In async mode work does not occupy a thread while waiting for the partner API; only the number of
+ * in-flight tasks is bounded.
+ */
+@Slf4j
+@Component
+@Conditional(ExternalTaskEnabledCondition.class)
+public class ExternalTaskWorkerPool {
+
+    @Value("${camunda.external-task.worker.mode:sequential}")
+    private String mode;
+
+    @Value("${camunda.external-task.worker.pool-size:8}")
+    private int poolSize;
+
+    @Value("${camunda.external-task.worker.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${camunda.external-task.worker.thread-type:platform}")
+    private String threadType;
+
+    private ExecutorService executor;
+    private AdjustableSemaphore slots;
+    private int concurrencyLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, TopicBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (isAsync()) {
+            slots = new AdjustableSemaphore(maxInFlight);
+            concurrencyLimit = maxInFlight;
+            log.info("External task worker runs in async mode with at most {} tasks in flight", maxInFlight);
+            return;
+        }
+        if (!isConcurrent()) {
+            log.info("External task worker runs in sequential mode on the polling thread");
+            return;
+        }
+
+        slots = new AdjustableSemaphore(poolSize);
+        concurrencyLimit = poolSize;
+        executor = Executors.newFixedThreadPool(poolSize, createThreadFactory("external-task-worker-"));
+        log.info("External task worker runs in concurrent mode with {} {} threads", poolSize, threadType);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        bulkheads.values().forEach(bulkhead -> awaitShutdown(bulkhead.executor));
+        bulkheads.clear();
+        if (executor != null) {
+            awaitShutdown(executor);
+        }
+    }
+
+    /**
+     * Configures the bulkhead of a topic.
+     * A null or non-positive maxConcurrency removes the bulkhead and the topic uses the shared pool again.
+     *
+     * @param topicName Topic name
+     * @param maxConcurrency Tasks of this topic executing at once
+     * @param queueCapacity Tasks of this topic waiting for a free slot
+     */
+    public void configureTopic(String topicName, Integer maxConcurrency, Integer queueCapacity) {
+        int concurrency = maxConcurrency != null ? maxConcurrency : 0;
+        int capacity = queueCapacity != null ? Math.max(queueCapacity, 0) : 0;
+
+        TopicBulkhead current = bulkheads.get(topicName);
+        if (current != null && current.maxConcurrency == concurrency && current.queueCapacity == capacity) {
+            return;
+        }
+
+        if (concurrency <= 0) {
+            if (current != null) {
+                bulkheads.remove(topicName);
+                current.executor.shutdown();
+                log.info("Removed bulkhead for topic: {}", topicName);
+            }
+            return;
+        }
+
+        bulkheads.put(topicName, new TopicBulkhead(topicName, concurrency, capacity));
+        if (current != null) {
+            // Already queued tasks of the old bulkhead still run to completion
+            current.executor.shutdown();
+        }
+        log.info("Configured bulkhead for topic {}: maxConcurrency={}, queueCapacity={}",
+                topicName, concurrency, capacity);
+    }
+
+    /**
+     * Returns per-topic bulkhead utilization
+     */
+    public Map<String, Map<String, Object>> getBulkheadStatus() {
+        Map<String, Map<String, Object>> status = new HashMap<>();
+        bulkheads.forEach((topicName, bulkhead) -> {
+            Map<String, Object> topicStatus = new HashMap<>();
+            topicStatus.put("maxConcurrency", bulkhead.maxConcurrency);
+            topicStatus.put("queueCapacity", bulkhead.queueCapacity);
+            topicStatus.put("active", bulkhead.executor.getActiveCount());
+            topicStatus.put("queued", bulkhead.executor.getQueue().size());
+            topicStatus.put("rejected", bulkhead.rejected.get());
+            topicStatus.put("saturated", !bulkhead.hasCapacity());
+            status.put(topicName, topicStatus);
+        });
+        return status;
+    }
+
+    /**
+     * Runs the work of a topic.
+     * Topics with a bulkhead never block the caller: when their slots and queue are full the work is rejected
+     * and onRejected runs on the calling thread. Other topics go through {@link #submit(Runnable)}.
+     */
+    public void submit(String topicName, Runnable work, Runnable onRejected) {
+        TopicBulkhead bulkhead = bulkheads.get(topicName);
+        if (bulkhead == null) {
+            submit(work);
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        bulkhead.pending.incrementAndGet();
+        try {
+            bulkhead.executor.execute(() -> {
+                try {
+                    work.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    bulkhead.pending.decrementAndGet();
+                    bulkhead.notifyIfAvailable();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.decrementAndGet();
+            bulkhead.pending.decrementAndGet();
+            bulkhead.rejected.incrementAndGet();
+            log.warn("Bulkhead of topic {} is full, rejecting task", topicName);
+            onRejected.run();
+        }
+    }
+
+    /**
+     * Returns true if the topic has no bulkhead or its slots and queue can take another task
+     */
+    public boolean hasCapacity(String topicName) {
+        TopicBulkhead bulkhead = bulkheads.get(topicName);
+        return bulkhead == null || bulkhead.hasCapacity();
+    }
+
+    /**
+     * Runs the callback once, as soon as the bulkhead of the topic can take another task.
+     * The callback runs on the calling thread if it already can, otherwise on the worker thread that freed a slot.
+     * A later registration replaces an earlier one that has not run yet.
+     */
+    public void whenCapacityAvailable(String topicName, Runnable callback) {
+        TopicBulkhead bulkhead = bulkheads.get(topicName);
+        if (bulkhead == null) {
+            callback.run();
+            return;
+        }
+        bulkhead.onAvailable.set(callback);
+        bulkhead.notifyIfAvailable();
+    }
+
+    /**
+     * Returns true if the topic has its own bulkhead
+     */
+    public boolean hasBulkhead(String topicName) {
+        return bulkheads.containsKey(topicName);
+    }
+
+    /**
+     * Returns true if fetched tasks are dispatched to the pool instead of running on the polling thread
+     */
+    public boolean isConcurrent() {
+        return "concurrent".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Returns true if tasks are executed with non-blocking API calls
+     */
+    public boolean isAsync() {
+        return "async".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Number of tasks the pool can run at the same time
+     */
+    public int getPoolSize() {
+        if (isAsync()) {
+            return maxInFlight;
+        }
+        return isConcurrent() ? poolSize : 1;
+    }
+
+    /**
+     * Number of tasks currently executing
+     */
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    /**
+     * Number of free execution slots
+     */
+    public int getAvailableCapacity() {
+        return Math.max(0, slots != null ? slots.availablePermits() : 1 - inFlight.get());
+    }
+
+    /**
+     * Changes how many tasks may run at once, between 1 and the pool size.
+     * Lowering the limit does not interrupt running tasks, it only holds back new ones.
+     */
+    public synchronized void setConcurrencyLimit(int limit) {
+        if (slots == null) {
+            return;
+        }
+        int newLimit = Math.max(1, Math.min(limit, getPoolSize()));
+        int delta = newLimit - concurrencyLimit;
+        if (delta > 0) {
+            slots.release(delta);
+        } else if (delta < 0) {
+            slots.reducePermits(-delta);
+        }
+        concurrencyLimit = newLimit;
+    }
+
+    /**
+     * Current concurrency limit
+     */
+    public synchronized int getConcurrencyLimit() {
+        return slots != null ? concurrencyLimit : getPoolSize();
+    }
+
+    /**
+     * Runs the given work.
+     * In concurrent mode the caller blocks until a slot is free and the work then runs on a pool thread;
+     * in sequential mode the work runs on the calling thread.
+     */
+    public void submit(Runnable work) {
+        if (!isConcurrent()) {
+            inFlight.incrementAndGet();
+            try {
+                work.run();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return;
+        }
+
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free worker slot", e);
+        }
+
+        inFlight.incrementAndGet();
+        try {
+            executor.execute(() -> {
+                try {
+                    work.run();
+                } finally {
+                    inFlight.decrementAndGet();
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Starts non-blocking work and keeps it counted as in flight until the returned future completes.
+     * The caller blocks only while the in-flight limit is reached.
+     */
+    public void submitAsync(Supplier<CompletableFuture<?>> work) {
+        try {
+            slots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a free worker slot", e);
+        }
+
+        inFlight.incrementAndGet();
+        CompletableFuture<?> future;
+        try {
+            future = work.get();
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            slots.release();
+            throw e;
+        }
+
+        future.whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            slots.release();
+        });
+    }
+
+    private void awaitShutdown(ExecutorService executorService) {
+        executorService.shutdown();
+        try {
+            if (!executorService.awaitTermination(30, TimeUnit.SECONDS)) {
+                executorService.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Creates the worker thread factory.
+     * Virtual threads need Java 21+; on older runtimes platform threads are used instead.
+     */
+    private ThreadFactory createThreadFactory(String namePrefix) {
+        if ("virtual".equalsIgnoreCase(threadType)) {
+            try {
+                Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                builder = builderType.getMethod("name", String.class, long.class)
+                        .invoke(builder, namePrefix, 0L);
+                return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                log.warn("Virtual threads are not available on this JVM, falling back to platform threads");
+                threadType = "platform";
+            }
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Semaphore whose permits can be taken away while they are held
+     */
+    private static class AdjustableSemaphore extends Semaphore {
+        AdjustableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        public void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+
+    /**
+     * Bounded executor and queue dedicated to one topic
+     */
+    private class TopicBulkhead {
+        private final int maxConcurrency;
+        private final int queueCapacity;
+        private final ThreadPoolExecutor executor;
+        private final AtomicInteger rejected = new AtomicInteger();
+        // Tasks submitted and not yet finished, running or queued
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicReference<Runnable> onAvailable = new AtomicReference<>();
+
+        TopicBulkhead(String topicName, int maxConcurrency, int queueCapacity) {
+            this.maxConcurrency = maxConcurrency;
+            this.queueCapacity = queueCapacity;
+
+            BlockingQueue<Runnable> queue = queueCapacity > 0
+                    ? new ArrayBlockingQueue<>(queueCapacity)
+                    : new SynchronousQueue<>();
+            this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS, queue,
+                    createThreadFactory("external-task-" + topicName + "-"), new ThreadPoolExecutor.AbortPolicy());
+            this.executor.allowCoreThreadTimeOut(true);
+        }
+
+        boolean hasCapacity() {
+            return pending.get() < maxConcurrency + queueCapacity;
+        }
+
+        void notifyIfAvailable() {
+            if (onAvailable.get() == null || !hasCapacity()) {
+                return;
+            }
+            Runnable callback = onAvailable.getAndSet(null);
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+}
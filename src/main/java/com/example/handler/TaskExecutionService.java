@@ -1,130 +1,307 @@
 package com.example.handler;
 
-import com.example.model.entity.TaskApiMapping;
-import com.example.repository.TaskApiMappingRepository;
+import com.example.exception.CircuitBreakerOpenException;
+import com.example.exception.HostLimitExceededException;
+import com.example.model.dto.TaskMappingSnapshot;
+import com.example.service.TaskMappingRegistry;
+import com.example.util.CircuitBreaker;
+import com.example.util.CircuitBreakerRegistry;
+import com.example.util.JsonPathTree;
 import com.example.util.JsonUtils;
 import com.example.util.RestClient;
+import com.example.util.TemplateEngine;
 import com.example.model.common.RestRequestModel;
 import com.example.model.common.RestResponseModel;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class TaskExecutionService {
-    private final TaskApiMappingRepository taskApiMappingRepository;
+    private final TaskMappingRegistry taskMappingRegistry;
     private final RestClient restClient;
     private final JsonUtils jsonUtils;
+    private final TemplateEngine templateEngine;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    // Overall time budget of an API call including retries, by default the external task lock duration
+    @Value("${task-execution.deadline:${camunda.external-task.lock-duration:20000}}")
+    private long deadline;
+
+    // Write every fetched variable back on completion instead of only new and changed ones
+    @Value("${task-execution.write-back-all-variables:false}")
+    private boolean writeBackAllVariables;
 
-    //@Retryable(maxAttemptsExpression = "#{#taskMapping.maxRetries}",
-    //           backoff = @Backoff(delayExpression = "#{#taskMapping.retryTimeout}"))
     public Map<String, Object> executeTask(Long bpmnProcessId, String taskId, Map<String, Object> variables) {
-        TaskApiMapping taskMapping;
-        if (bpmnProcessId != null) {
-            taskMapping = taskApiMappingRepository.findByBpmnProcessIdAndTaskId(bpmnProcessId, taskId)
-                    .orElseGet(() -> taskApiMappingRepository.findByTaskId(taskId)
-                            .orElseThrow(() -> new RuntimeException("Task mapping not found for taskId: " + taskId)));
-        } else {
-            taskMapping = taskApiMappingRepository.findByTaskId(taskId)
-                    .orElseThrow(() -> new RuntimeException("Task mapping not found for taskId: " + taskId));
-        }
+        TaskMappingSnapshot taskMapping = taskMappingRegistry.find(bpmnProcessId, taskId)
+                .orElseThrow(() -> new RuntimeException("Task mapping not found for taskId: " + taskId));
+        return executeTask(taskMapping, variables);
+    }
 
-        if (!taskMapping.getEnabled()) {
-            log.warn("Task mapping is disabled for taskId: {}", taskId);
-            return variables;
+    /**
+     * Executes the API call of an already resolved task mapping.
+     * Returns the variables to write back: only new and changed ones, unless the mapping or
+     * task-execution.write-back-all-variables asks for all variables.
+     */
+    public Map<String, Object> executeTask(TaskMappingSnapshot taskMapping, Map<String, Object> variables) {
+        if (!taskMapping.isEnabled()) {
+            log.warn("Task mapping is disabled for taskId: {}", taskMapping.getTaskId());
+            return toWriteBack(taskMapping, variables, Map.of());
         }
 
-        log.info("Executing task: {} with variables: {}", taskId, variables);
+        log.info("Executing task: {} with variables: {}", taskMapping.getTaskId(), variables);
         
         try {
-            // Validate request
-            if (taskMapping.getRequestSchema() != null) {
-                jsonUtils.validateJsonSchema(processTemplate(taskMapping.getRequestTemplate(), variables), taskMapping.getRequestSchema());
+            RestResponseModel<String> response = callEndpoint(taskMapping, prepareRequest(taskMapping, variables));
+            return processResponse(taskMapping, variables, response);
+        } catch (CircuitBreakerOpenException e) {
+            // Not a task failure, the caller retries once the breaker lets calls through again
+            throw e;
+        } catch (Exception e) {
+            return processError(taskMapping, variables, e);
+        }
+    }
+
+    /**
+     * Executes the API call of an already resolved task mapping without blocking the calling thread.
+     * The future completes with the result variables, or exceptionally if the task fails and failOnError is set.
+     */
+    public CompletableFuture<Map<String, Object>> executeTaskAsync(TaskMappingSnapshot taskMapping, Map<String, Object> variables) {
+        if (!taskMapping.isEnabled()) {
+            log.warn("Task mapping is disabled for taskId: {}", taskMapping.getTaskId());
+            return CompletableFuture.completedFuture(toWriteBack(taskMapping, variables, Map.of()));
+        }
+
+        log.info("Executing task asynchronously: {} with variables: {}", taskMapping.getTaskId(), variables);
+
+        CompletableFuture<RestResponseModel<String>> response;
+        try {
+            response = callEndpointAsync(taskMapping, prepareRequest(taskMapping, variables));
+        } catch (Exception e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.handle((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                if (cause instanceof CircuitBreakerOpenException breakerOpen) {
+                    throw breakerOpen;
+                }
+                if (cause instanceof HostLimitExceededException hostLimitExceeded) {
+                    // Never sent, retried like an open breaker instead of failing the task
+                    throw hostLimitExceeded;
+                }
+                return processError(taskMapping, variables, cause);
             }
+            try {
+                return processResponse(taskMapping, variables, result);
+            } catch (Exception e) {
+                return processError(taskMapping, variables, e);
+            }
+        });
+    }
 
-            // Prepare request
-            Map<String, String> headers = prepareHeaders(taskMapping.getHeaders(), variables);
-            String requestBody = processTemplate(taskMapping.getRequestTemplate(), variables);
-            
-            log.debug("Prepared request for {}: URL={}, Method={}, Headers={}, Body={}", 
-                    taskId, taskMapping.getApiUrl(), taskMapping.getHttpMethod(), headers, requestBody);
-
-            // Execute API call with timeout
-            RestRequestModel<String> requestModel = RestRequestModel.<String>builder()
-                    .url(taskMapping.getApiUrl())
-                    .method(HttpMethod.valueOf(taskMapping.getHttpMethod()))
-                    .headers(headers)
-                    .body(requestBody)
-                    .responseType(String.class)
-                    .timeout(Math.toIntExact(taskMapping.getTimeout()))
-                    .maxRetries(taskMapping.getMaxRetries())
-                    .retryDelay(Math.toIntExact(taskMapping.getRetryTimeout()))
-                    .failOnError(taskMapping.getFailOnError())
-                    .build();
-            
-            RestResponseModel<String> response = restClient.execute(requestModel);
-            
-            if (!response.isSuccess()) {
-                throw new RuntimeException("API call failed: " + response.getErrorMessage());
+    private RestRequestModel<String> prepareRequest(TaskMappingSnapshot taskMapping, Map<String, Object> variables) {
+        // Render once; schema validation and the HTTP layer share the result
+        Map<String, String> headers = prepareHeaders(taskMapping, variables);
+        String requestBody = templateEngine.render(taskMapping.getRequestTemplate(), variables);
+
+        // Validate request
+        if (taskMapping.getRequestSchema() != null) {
+            jsonUtils.validateJsonSchema(jsonUtils.toJsonNode(requestBody), taskMapping.getRequestSchema());
+        }
+        
+        log.debug("Prepared request for {}: URL={}, Method={}, Headers={}, Body={}", 
+                taskMapping.getTaskId(), taskMapping.getApiUrl(), taskMapping.getHttpMethod(), headers, requestBody);
+
+        // Execute API call with timeout
+        return RestRequestModel.<String>builder()
+                .url(taskMapping.getApiUrl())
+                .method(taskMapping.getHttpMethod())
+                .headers(headers)
+                .body(requestBody != null ? requestBody.getBytes(StandardCharsets.UTF_8) : null)
+                .responseType(String.class)
+                .timeout(Math.toIntExact(taskMapping.getTimeout()))
+                .maxRetries(taskMapping.getMaxRetries())
+                .retryDelay(Math.toIntExact(taskMapping.getRetryTimeout()))
+                .deadline(deadline)
+                .failOnError(taskMapping.isFailOnError())
+                .build();
+    }
+
+    /**
+     * Calls the partner API through the circuit breaker of its endpoint
+     */
+    private RestResponseModel<String> callEndpoint(TaskMappingSnapshot taskMapping, RestRequestModel<String> request) {
+        CircuitBreaker breaker = circuitBreakerRegistry.forUrl(taskMapping.getApiUrl());
+        if (breaker == null) {
+            return restClient.execute(request);
+        }
+
+        breaker.acquirePermission();
+        RestResponseModel<String> response;
+        try {
+            response = restClient.execute(request);
+        } catch (RuntimeException e) {
+            recordOutcome(breaker, null, e);
+            throw e;
+        }
+        recordOutcome(breaker, response, null);
+        return response;
+    }
+
+    private CompletableFuture<RestResponseModel<String>> callEndpointAsync(TaskMappingSnapshot taskMapping,
+                                                                           RestRequestModel<String> request) {
+        CircuitBreaker breaker = circuitBreakerRegistry.forUrl(taskMapping.getApiUrl());
+        if (breaker == null) {
+            return restClient.executeAsync(request);
+        }
+
+        breaker.acquirePermission();
+        return restClient.executeAsync(request)
+                .whenComplete((response, error) -> recordOutcome(breaker, response, error));
+    }
+
+    /**
+     * Counts server errors, throttling, timeouts and connection failures against the endpoint.
+     * Other client errors mean the endpoint is up and count as successful calls.
+     * Requests rejected by the local host limit never reached the endpoint and are not counted.
+     */
+    private void recordOutcome(CircuitBreaker breaker, RestResponseModel<String> response, Throwable error) {
+        Integer status = null;
+        if (response != null) {
+            status = response.isSuccess() || response.getStatus() == null ? null : response.getStatus().value();
+        } else {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof HostLimitExceededException) {
+                    breaker.onNotCalled();
+                    return;
+                }
+                if (cause instanceof HttpStatusCodeException statusException) {
+                    status = statusException.getRawStatusCode();
+                    break;
+                }
             }
-            
-            log.debug("Received response for {}: Status={}, Body={}", 
-                    taskId, response.getStatus(), response.getBody());
+            if (status == null) {
+                breaker.onFailure();
+                return;
+            }
+        }
+
+        if (status != null && (status >= 500 || status == 408 || status == 429)) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
 
-            // Validate response
-            if (taskMapping.getResponseSchema() != null) {
-                jsonUtils.validateJsonSchema(response.getBody(), taskMapping.getResponseSchema());
+    private Map<String, Object> processResponse(TaskMappingSnapshot taskMapping, Map<String, Object> variables,
+                                                RestResponseModel<String> response) {
+        String taskId = taskMapping.getTaskId();
+        if (!response.isSuccess()) {
+            throw new RuntimeException("API call failed: " + response.getErrorMessage());
+        }
+        
+        log.debug("Received response for {}: Status={}, Body={}", 
+                taskId, response.getStatus(), response.getBody());
+
+        // Validate response, the parsed tree is reused for the response mapping
+        JsonNode responseTree = null;
+        if (taskMapping.getResponseSchema() != null) {
+            responseTree = jsonUtils.toJsonNode(response.getBody());
+            jsonUtils.validateJsonSchema(responseTree, taskMapping.getResponseSchema());
+        }
+
+        // Process response
+        Map<String, Object> mappedResponse = Map.of();
+        if (taskMapping.getResponseMapping() != null && response.getBody() != null) {
+            mappedResponse = processResponseMapping(response.getBody(), responseTree, taskMapping.getResponseMapping());
+            log.debug("Mapped response: {}", mappedResponse);
+        }
+        Map<String, Object> result = toWriteBack(taskMapping, variables, mappedResponse);
+        
+        log.info("Successfully executed task: {} with result variables: {}", taskId, result);
+        return result;
+    }
+
+    private Map<String, Object> processError(TaskMappingSnapshot taskMapping, Map<String, Object> variables, Throwable e) {
+        log.error("Error executing task: {} - {}", taskMapping.getTaskId(), e.getMessage(), e);
+        
+        if (taskMapping.isFailOnError()) {
+            throw new RuntimeException("Task execution failed: " + e.getMessage(), e);
+        }
+
+        // Process error mapping if available
+        Map<String, Object> errorResult = Map.of();
+        if (taskMapping.getErrorMapping() != null) {
+            try {
+                errorResult = processErrorMapping(e, taskMapping.getErrorMapping());
+            } catch (Exception ex) {
+                log.error("Error processing error mapping", ex);
             }
+        }
 
-            // Process response
+        return toWriteBack(taskMapping, variables, errorResult);
+    }
+
+    /**
+     * Builds the variables written back on completion.
+     * By default only mapped values that are new or differ from the fetched variables are returned,
+     * so unchanged process variables are not rewritten in the engine.
+     * The fetched variables must be plain values, as mapped results are.
+     */
+    private Map<String, Object> toWriteBack(TaskMappingSnapshot taskMapping, Map<String, Object> variables,
+                                            Map<String, Object> mapped) {
+        if (writeBackAllVariables || taskMapping.isWriteBackAllVariables()) {
             Map<String, Object> result = new HashMap<>(variables);
-            if (taskMapping.getResponseMapping() != null && response.getBody() != null) {
-                log.debug("Processing response mapping: {}", taskMapping.getResponseMapping());
-                Map<String, Object> mappedResponse = processResponseMapping(response.getBody(), taskMapping.getResponseMapping());
-                log.debug("Mapped response: {}", mappedResponse);
-                result.putAll(mappedResponse);
-            }
-            
-            log.info("Successfully executed task: {} with result variables: {}", taskId, result);
+            result.putAll(mapped);
             return result;
+        }
 
-        } catch (Exception e) {
-            log.error("Error executing task: {} - {}", taskId, e.getMessage(), e);
-            
-            if (taskMapping.getFailOnError()) {
-                throw new RuntimeException("Task execution failed: " + e.getMessage(), e);
+        Map<String, Object> delta = new HashMap<>();
+        mapped.forEach((name, value) -> {
+            if (!variables.containsKey(name) || !sameValue(variables.get(name), value)) {
+                delta.put(name, value);
             }
+        });
+        return delta;
+    }
 
-            // Process error mapping if available
-            if (taskMapping.getErrorMapping() != null) {
-                try {
-                    Map<String, Object> errorResult = processErrorMapping(e, taskMapping.getErrorMapping());
-                    variables.putAll(errorResult);
-                } catch (Exception ex) {
-                    log.error("Error processing error mapping", ex);
-                }
+    /**
+     * Numbers are compared by value, a fetched Long and a mapped Integer holding the same number are unchanged
+     */
+    private boolean sameValue(Object fetched, Object mapped) {
+        if (fetched instanceof Number fetchedNumber && mapped instanceof Number mappedNumber) {
+            try {
+                return new BigDecimal(fetchedNumber.toString()).compareTo(new BigDecimal(mappedNumber.toString())) == 0;
+            } catch (NumberFormatException e) {
+                // NaN or infinity
+                return Objects.equals(fetched, mapped);
             }
-
-            return variables;
         }
+        return Objects.equals(fetched, mapped);
     }
 
-    private Map<String, String> prepareHeaders(String headerTemplate, Map<String, Object> variables) {
+    private Map<String, String> prepareHeaders(TaskMappingSnapshot taskMapping, Map<String, Object> variables) {
         Map<String, String> headers = new HashMap<>();
         
-        if (headerTemplate != null && !headerTemplate.trim().isEmpty()) {
+        if (taskMapping.getHeadersTemplate() != null) {
             try {
-                // Debug log - header template and variables
-                log.debug("Header template before processing: {}", headerTemplate);
-                log.debug("Variables for header processing: {}", variables);
-                
                 // Process template
-                String processedTemplate = processTemplate(headerTemplate, variables);
+                String processedTemplate = templateEngine.render(taskMapping.getHeadersTemplate(), variables);
                 log.debug("Processed header template: {}", processedTemplate);
                 
                 // Convert to JSON
@@ -140,82 +317,19 @@ public class TaskExecutionService {
         return headers;
     }
 
-    private String processTemplate(String template, Map<String, Object> variables) {
-        if (template == null) return null;
-        
-        String processed = template;
-        for (Map.Entry<String, Object> entry : variables.entrySet()) {
-            String placeholder = "${" + entry.getKey() + "}";
-            String value = entry.getValue() != null ? entry.getValue().toString() : "";
-            
-            // Debug log - variable replacement
-            if (processed.contains(placeholder)) {
-                log.debug("Replacing placeholder '{}' with value '{}'", placeholder, value);
-            }
-            
-            processed = processed.replace(placeholder, value);
-        }
-        return processed;
-    }
-
-    private Map<String, Object> processResponseMapping(String responseBody, String mappingTemplate) {
+    private Map<String, Object> processResponseMapping(String responseBody, JsonNode responseTree, JsonPathTree mappings) {
         try {
-            log.debug("Processing response mapping. Response body: {}, Mapping template: {}", responseBody, mappingTemplate);
-            
-            // Convert response body to JSON
-            Map<String, Object> responseMap = jsonUtils.jsonToMap(responseBody);
-            log.debug("Parsed response map: {}", responseMap);
-            
-            // Convert mapping template to JSON
-            Map<String, String> mappings = jsonUtils.jsonToStringMap(mappingTemplate);
-            log.debug("Parsed mappings: {}", mappings);
-            
-            Map<String, Object> result = new HashMap<>();
-            
-            for (Map.Entry<String, String> mapping : mappings.entrySet()) {
-                String targetKey = mapping.getKey();
-                String sourcePath = mapping.getValue();
-                log.debug("Processing mapping: {} -> {}", sourcePath, targetKey);
-                
-                // Fix paths starting with "response."
-                if (sourcePath.startsWith("response.")) {
-                    sourcePath = sourcePath.substring("response.".length());
-                }
-                
-                String[] path = sourcePath.split("\\.");
-                Object value = responseMap;
-                
-                // Follow path to find value
-                for (String key : path) {
-                    if (value instanceof Map) {
-                        value = ((Map) value).get(key);
-                        log.debug("Following path '{}', current value: {}", key, value);
-                    } else {
-                        log.warn("Cannot follow path '{}' as current value is not a map: {}", key, value);
-                        value = null;
-                        break;
-                    }
-                }
-                
-                if (value != null) {
-                    log.debug("Setting result variable '{}' to value: {}", targetKey, value);
-                    result.put(targetKey, value);
-                } else {
-                    log.warn("No value found for path '{}', skipping mapping for '{}'", sourcePath, targetKey);
-                }
-            }
-            
-            log.debug("Final mapped result: {}", result);
-            return result;
+            return responseTree != null
+                    ? jsonUtils.extractPaths(responseTree, mappings)
+                    : jsonUtils.extractPaths(responseBody, mappings);
         } catch (Exception e) {
             log.error("Error processing response mapping: {}", e.getMessage(), e);
             throw new RuntimeException("Error processing response mapping", e);
         }
     }
 
-    private Map<String, Object> processErrorMapping(Exception error, String errorMapping) {
+    private Map<String, Object> processErrorMapping(Throwable error, Map<String, String[]> mappings) {
         try {
-            Map<String, String> mappings = jsonUtils.jsonToStringMap(errorMapping);
             Map<String, Object> result = new HashMap<>();
             
             // Create error context
@@ -225,11 +339,10 @@ public class TaskExecutionService {
             errorContext.put("timestamp", System.currentTimeMillis());
             
             // Apply mappings
-            for (Map.Entry<String, String> mapping : mappings.entrySet()) {
-                String[] path = mapping.getValue().split("\\.");
+            for (Map.Entry<String, String[]> mapping : mappings.entrySet()) {
                 Object value = errorContext;
                 
-                for (String key : path) {
+                for (String key : mapping.getValue()) {
                     if (value instanceof Map) {
                         value = ((Map) value).get(key);
                     }
@@ -0,0 +1,30 @@
+package com.example.model.api.request;
+
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tasks to complete in one request: listed explicitly, or selected by process instance and task definition key
+ */
+@Data
+public class BulkTaskCompletionRequest {
+    private List<TaskCompletion> tasks;
+
+    // Query: open tasks of these process instances, optionally only those with this task definition key
+    private List<String> processInstanceIds;
+    private String taskDefinitionKey;
+
+    // Variables sent with every task selected by the query
+    private Map<String, Object> variables;
+
+    // In-process engine only: complete all tasks in one transaction, all or nothing
+    private boolean transactional;
+
+    @Data
+    public static class TaskCompletion {
+        private String taskId;
+        private Map<String, Object> variables;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.model.api.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Outcome of one task in a bulk completion
+ */
+@Data
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TaskCompletionResult {
+    private String taskId;
+    private boolean success;
+    private String error;
+}
@@ -29,6 +29,7 @@ public class RestRequestModel<T> {
     /**
      * İstek gövdesi (body)
      * Null olabilir (örn. GET istekleri için)
+     * String ve byte[] olduğu gibi gönderilir, diğer tipler JSON'a çevrilir
      */
     private Object body;
     
@@ -70,6 +71,13 @@ public class RestRequestModel<T> {
     @Builder.Default
     private int retryDelay = 1000;
     
+    /**
+     * Yeniden denemeler dahil toplam süre bütçesi (milisaniye)
+     * 0 veya negatif değer bütçe uygulanmaz
+     */
+    @Builder.Default
+    private long deadline = 0;
+    
     /**
      * Hata durumunda başarısız olup olmayacağı
      * true ise hata fırlatır, false ise null döner
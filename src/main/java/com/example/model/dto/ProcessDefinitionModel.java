@@ -0,0 +1,47 @@
+package com.example.model.dto;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-parsed view of the gateways and sequence flows of a deployed process definition.
+ * Process definitions never change once deployed, so a model can be kept for as long as its definition id is used.
+ */
+@Value
+public class ProcessDefinitionModel {
+    String processDefinitionId;
+
+    /**
+     * Gateways in the order they were reported before: grouped by type, in document order within a type
+     */
+    List<Gateway> gateways;
+
+    /**
+     * Sequence flow id -> sequence flow
+     */
+    Map<String, SequenceFlow> sequenceFlows;
+
+    @Value
+    public static class Gateway {
+        String id;
+        String name;
+        String type;
+        String defaultFlow;
+        List<String> outgoingFlows;
+    }
+
+    @Value
+    public static class SequenceFlow {
+        String id;
+        String name;
+        String sourceRef;
+        String targetRef;
+
+        /**
+         * Condition expression text, null for unconditional flows
+         */
+        String conditionExpression;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.model.dto;
+
+import lombok.Value;
+
+/**
+ * Outcome of one process start in a bulk start request
+ */
+@Value
+public class ProcessStartResult {
+    /**
+     * Position of the variable set in the request
+     */
+    int index;
+
+    /**
+     * Id of the started process instance, null if the start failed
+     */
+    String processInstanceId;
+
+    /**
+     * Error message, null if the process instance was started
+     */
+    String error;
+}
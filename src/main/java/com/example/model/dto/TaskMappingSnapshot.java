@@ -0,0 +1,74 @@
+package com.example.model.dto;
+
+import com.example.util.CompiledTemplate;
+import com.example.util.JsonPathTree;
+import com.networknt.schema.JsonSchema;
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.http.HttpMethod;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Immutable, pre-parsed view of a TaskApiMapping used on the task execution hot path.
+ * Templates, mapping paths and schemas are parsed once when the snapshot is built,
+ * so executing a task needs neither SQL nor re-parsing.
+ */
+@Value
+@Builder
+public class TaskMappingSnapshot {
+    Long id;
+    Long bpmnProcessId;
+    String taskId;
+    String taskName;
+    String apiUrl;
+    HttpMethod httpMethod;
+
+    /**
+     * Compiled templates, null if the mapping has none
+     */
+    CompiledTemplate requestTemplate;
+    CompiledTemplate headersTemplate;
+
+    /**
+     * Compiled response paths, null if the mapping has none
+     */
+    JsonPathTree responseMapping;
+
+    /**
+     * Target variable name -> error context path segments
+     */
+    Map<String, String[]> errorMapping;
+
+    /**
+     * Compiled schemas, null if the mapping has none
+     */
+    JsonSchema requestSchema;
+    JsonSchema responseSchema;
+
+    int maxRetries;
+    long retryTimeout;
+
+    /**
+     * Engine retries of a failed external task, null uses the external task defaults
+     */
+    Integer incidentRetries;
+    Long incidentRetryTimeout;
+
+    long timeout;
+    boolean failOnError;
+    boolean enabled;
+
+    /**
+     * Completion: write back all fetched variables, set result variables as local variables
+     */
+    boolean writeBackAllVariables;
+    boolean localVariables;
+
+    Integer maxConcurrency;
+    Integer queueCapacity;
+    String workerGroup;
+
+    LocalDateTime updatedAt;
+}
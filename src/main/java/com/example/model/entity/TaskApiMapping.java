@@ -38,13 +38,20 @@ public class TaskApiMapping {
     @Column(columnDefinition = "TEXT")
     private String headers;
 
-    // Retry configuration
+    // Retry configuration of the API call within one execution
     @Column(nullable = false)
     private Integer maxRetries = 3;
 
     @Column(nullable = false)
     private Long retryTimeout = 60000L; // milliseconds
 
+    // Engine retries of a failed external task
+    @Column
+    private Integer incidentRetries; // null uses camunda.external-task.retry-count
+
+    @Column
+    private Long incidentRetryTimeout; // milliseconds, null uses camunda.external-task.retry-timeout
+
     @Column(nullable = false)
     private Long timeout = 30000L; // API call timeout in milliseconds
 
@@ -55,6 +62,29 @@ public class TaskApiMapping {
     @Column(columnDefinition = "TEXT")
     private String errorMapping;
 
+    // Worker bulkhead
+    @Column
+    private Integer maxConcurrency; // tasks of this topic executing at once, null uses the shared worker pool
+
+    @Column
+    private Integer queueCapacity; // tasks of this topic waiting for a free slot
+
+    @Column
+    private String workerGroup; // topics in the same group are fetched by a dedicated external task client
+
+    @Column
+    private Long lockDuration; // external task lock duration in ms, null uses camunda.external-task.lock-duration
+
+    @Column(columnDefinition = "TEXT")
+    private String fetchVariables; // comma separated variables fetched besides those used by the templates, "*" fetches all
+
+    // Completion
+    @Column
+    private Boolean writeBackAllVariables; // write every fetched variable back instead of only new and changed ones
+
+    @Column
+    private Boolean localVariables; // set result variables on the task's execution scope instead of the process
+
     // Validation
     @Column(columnDefinition = "TEXT")
     private String requestSchema;
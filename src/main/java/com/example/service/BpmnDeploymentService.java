@@ -1,6 +1,6 @@
 package com.example.service;
 
-import com.example.client.CamundaRestClient;
+import com.example.client.CamundaClient;
 import com.example.handler.ExternalTaskHandler;
 import com.example.model.client.DeploymentResponse;
 import com.example.model.entity.BpmnProcess;
@@ -26,7 +26,7 @@ import org.springframework.context.ApplicationContext;
 @RequiredArgsConstructor
 public class BpmnDeploymentService {
     private final BpmnProcessRepository bpmnProcessRepository;
-    private final CamundaRestClient camundaRestClient;
+    private final CamundaClient camundaClient;
     private static final String BPMN_STORAGE_PATH = "bpmn-files/";
     private final ApplicationContext applicationContext;
 
@@ -45,7 +45,7 @@ public class BpmnDeploymentService {
 
         // Deploy to Camunda Engine using REST client
         try {
-            camundaRestClient.deployProcess(processName, filePath.toFile());
+            camundaClient.deployProcess(processName, filePath.toFile());
             log.info("Successfully deployed BPMN process to Camunda Engine: {}", processKey);
             // Create or update BPMN process
             BpmnProcess bpmnProcess = bpmnProcessRepository.findByProcessKey(processKey)
@@ -85,7 +85,7 @@ public class BpmnDeploymentService {
             
             // Deploy to Camunda Engine using REST client
             File bpmnFile = filePath.toFile();
-            camundaRestClient.deployProcess(processName, bpmnFile);
+            camundaClient.deployProcess(processName, bpmnFile);
             log.info("Successfully deployed BPMN process to Camunda Engine: {}", processKey);
             
             // Create or update BPMN process
@@ -165,7 +165,7 @@ public class BpmnDeploymentService {
             Integer firstResult,
             Integer maxResults
     ) {
-        return camundaRestClient.getDeployments(id, name, nameLike, source, withoutSource, tenantIdIn,
+        return camundaClient.getDeployments(id, name, nameLike, source, withoutSource, tenantIdIn,
                 withoutTenantId, includeDeploymentsWithoutTenantId, after, before, sortBy, sortOrder,
                 firstResult, maxResults);
     }
@@ -174,7 +174,7 @@ public class BpmnDeploymentService {
         List<String> response = new ArrayList<>();
         for (var deployId : deploymentIDs){
             try {
-                camundaRestClient.deleteDeployment(deployId,true);
+                camundaClient.deleteDeployment(deployId,true);
                 response.add(deployId);
             }catch (Exception e){
                 log.error("Error delete deployment {}",deployId,e);
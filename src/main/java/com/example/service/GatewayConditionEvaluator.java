@@ -0,0 +1,137 @@
+package com.example.service;
+
+import com.example.client.CamundaClient;
+import com.example.model.dto.ProcessDefinitionModel;
+import lombok.extern.slf4j.Slf4j;
+import org.camunda.bpm.engine.impl.javax.el.ELContext;
+import org.camunda.bpm.engine.impl.javax.el.ExpressionFactory;
+import org.camunda.bpm.engine.impl.javax.el.ValueExpression;
+import org.camunda.bpm.engine.impl.juel.ExpressionFactoryImpl;
+import org.camunda.bpm.engine.impl.juel.SimpleContext;
+import org.camunda.bpm.engine.impl.juel.SimpleResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides which outgoing sequence flows of a gateway are taken for a set of process variables.
+ * Conditions are read from the cached process definition model and compiled once per expression text
+ * with the JUEL implementation of the embedded engine, so operators, empty and null handling are the engine's.
+ * Only process variables are resolvable: conditions using execution, beans or engine functions can not be
+ * evaluated here and leave the gateway for a client decision.
+ */
+@Slf4j
+@Component
+public class GatewayConditionEvaluator {
+    private static final String EXCLUSIVE_GATEWAY = "exclusiveGateway";
+    private static final String PARALLEL_GATEWAY = "parallelGateway";
+    private static final String INCLUSIVE_GATEWAY = "inclusiveGateway";
+
+    private final ExpressionFactory expressionFactory = new ExpressionFactoryImpl();
+
+    // Condition text -> compiled expression, empty if the condition can not be compiled
+    private final Map<String, Optional<ValueExpression>> expressions = new ConcurrentHashMap<>();
+
+    /**
+     * Returns whether gateways of a type can be routed without a client decision
+     */
+    public boolean supports(String gatewayType) {
+        return EXCLUSIVE_GATEWAY.equals(gatewayType)
+                || PARALLEL_GATEWAY.equals(gatewayType)
+                || INCLUSIVE_GATEWAY.equals(gatewayType);
+    }
+
+    /**
+     * Selects the target activities of a gateway.
+     * Exclusive gateways take the first flow whose condition holds, inclusive gateways every such flow and
+     * parallel gateways all flows. Flows without a condition always hold; the default flow is only taken
+     * when no other flow does.
+     *
+     * @param model Process definition model
+     * @param gateway Gateway of the model
+     * @param variables Current process variables, plain values or REST style {"value": ..., "type": ...} entries
+     * @return Target activity ids, empty if no flow can be taken or a condition could not be evaluated
+     */
+    public List<String> selectTargets(ProcessDefinitionModel model, ProcessDefinitionModel.Gateway gateway,
+                                      Map<String, Object> variables) {
+        Map<String, Object> values = CamundaClient.plainValues(variables);
+        List<String> targets = new ArrayList<>();
+        ProcessDefinitionModel.SequenceFlow defaultFlow = null;
+
+        for (String flowId : gateway.getOutgoingFlows()) {
+            ProcessDefinitionModel.SequenceFlow flow = model.getSequenceFlows().get(flowId);
+            if (flow == null) {
+                log.warn("Sequence flow {} of gateway {} not found in process definition {}",
+                        flowId, gateway.getId(), model.getProcessDefinitionId());
+                continue;
+            }
+
+            if (PARALLEL_GATEWAY.equals(gateway.getType())) {
+                targets.add(flow.getTargetRef());
+                continue;
+            }
+            if (flowId.equals(gateway.getDefaultFlow())) {
+                defaultFlow = flow;
+                continue;
+            }
+            Boolean holds = evaluate(flow.getConditionExpression(), values);
+            if (holds == null) {
+                // Leave the decision to the client rather than guess a route
+                log.warn("Gateway {} can not be routed in-process, condition of flow {} could not be evaluated",
+                        gateway.getId(), flowId);
+                return List.of();
+            }
+            if (holds) {
+                targets.add(flow.getTargetRef());
+                if (EXCLUSIVE_GATEWAY.equals(gateway.getType())) {
+                    break;
+                }
+            }
+        }
+
+        if (targets.isEmpty() && defaultFlow != null) {
+            targets.add(defaultFlow.getTargetRef());
+        }
+        return targets;
+    }
+
+    /**
+     * Evaluates a condition
+     *
+     * @return Whether the condition holds, null if it could not be compiled or evaluated
+     */
+    Boolean evaluate(String condition, Map<String, Object> variables) {
+        if (condition == null) {
+            return true;
+        }
+
+        Optional<ValueExpression> expression = expressions.computeIfAbsent(condition, this::compile);
+        if (expression.isEmpty()) {
+            return null;
+        }
+
+        try {
+            // Variables are root properties of a context per evaluation; unknown variables fail as in the engine
+            ELContext context = new SimpleContext(new SimpleResolver());
+            variables.forEach((name, value) -> context.getELResolver().setValue(context, null, name, value));
+            return Boolean.TRUE.equals(expression.get().getValue(context));
+        } catch (Exception e) {
+            log.debug("Condition {} could not be evaluated: {}", condition, e.getMessage());
+            return null;
+        }
+    }
+
+    private Optional<ValueExpression> compile(String condition) {
+        try {
+            // No functions or variables are bound at parse time, identifiers are resolved on evaluation
+            return Optional.of(expressionFactory.createValueExpression(new SimpleContext(), condition.trim(), Boolean.class));
+        } catch (Exception e) {
+            log.warn("Condition {} can not be evaluated in-process: {}", condition, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
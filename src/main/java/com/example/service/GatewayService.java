@@ -1,17 +1,11 @@
 package com.example.service;
 
-import com.example.client.CamundaRestClient;
+import com.example.client.CamundaClient;
+import com.example.model.dto.ProcessDefinitionModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import java.io.StringReader;
 import java.util.*;
 
 /**
@@ -22,14 +16,9 @@ import java.util.*;
 @RequiredArgsConstructor
 public class GatewayService {
     
-    private final CamundaRestClient camundaRestClient;
-    
-    // Gateway types in BPMN 2.0
-    private static final String EXCLUSIVE_GATEWAY = "exclusiveGateway";
-    private static final String PARALLEL_GATEWAY = "parallelGateway";
-    private static final String INCLUSIVE_GATEWAY = "inclusiveGateway";
-    private static final String EVENT_BASED_GATEWAY = "eventBasedGateway";
-    private static final String COMPLEX_GATEWAY = "complexGateway";
+    private final CamundaClient camundaClient;
+    private final ProcessDefinitionModelCache processDefinitionModelCache;
+    private final GatewayConditionEvaluator gatewayConditionEvaluator;
     
     /**
      * Get all gateways in a process instance
@@ -37,14 +26,12 @@ public class GatewayService {
     public List<Map<String, Object>> getGateways(String processInstanceId) {
         try {
             // Get process definition ID
-            Map<String, Object> activityInstances = camundaRestClient.getActivityInstances(processInstanceId);
+            Map<String, Object> activityInstances = camundaClient.getActivityInstances(processInstanceId);
             String processDefinitionId = (String) activityInstances.get("processDefinitionId");
             
-            // Get BPMN XML
-            String bpmnXml = camundaRestClient.getProcessDefinitionXml(processDefinitionId);
-            
-            // Parse XML to find gateways
-            List<Map<String, Object>> gateways = parseGatewaysFromXml(bpmnXml);
+            // Gateways of the definition, the BPMN XML is only downloaded and parsed on first use
+            List<Map<String, Object>> gateways = toGatewayInfo(processDefinitionModelCache.get(processDefinitionId));
+            gateways.forEach(gateway -> gateway.put("processDefinitionId", processDefinitionId));
             
             // Enrich with activity instance information
             enrichGatewaysWithInstanceInfo(gateways, activityInstances);
@@ -61,28 +48,14 @@ public class GatewayService {
      */
     public void executeGateway(String processInstanceId, String gatewayId, List<String> targetActivityIds, Map<String, Object> variables) {
         try {
-            List<Map<String, Object>> instructions = new ArrayList<>();
-            
-            // For each target activity, create an instruction to start before that activity
-            for (String activityId : targetActivityIds) {
-                Map<String, Object> instruction = new HashMap<>();
-                instruction.put("type", "startBeforeActivity");
-                instruction.put("activityId", activityId);
-                
-                // Add variables if provided
-                if (variables != null && !variables.isEmpty()) {
-                    instruction.put("variables", formatVariablesForModification(variables));
-                }
-                
-                instructions.add(instruction);
-            }
+            List<Map<String, Object>> instructions = startBeforeInstructions(targetActivityIds, variables);
             
             // Cancel the current gateway activity instance
-            Map<String, Object> activityInstances = camundaRestClient.getActivityInstances(processInstanceId);
+            Map<String, Object> activityInstances = camundaClient.getActivityInstances(processInstanceId);
             addCancelInstructionsForGateway(instructions, activityInstances, gatewayId);
             
             // Execute the modification
-            camundaRestClient.modifyProcessInstance(processInstanceId, instructions);
+            camundaClient.modifyProcessInstance(processInstanceId, instructions);
             
             log.info("Successfully executed gateway {} in process instance {}", gatewayId, processInstanceId);
         } catch (Exception e) {
@@ -91,6 +64,73 @@ public class GatewayService {
         }
     }
     
+    /**
+     * Routes a gateway in-process: its outgoing flow conditions are evaluated against the variables
+     * and the token is moved with a single process instance modification.
+     * Only a token waiting before an asynchronous gateway (a transition instance) can be routed; synchronous
+     * forks are passed by the engine in the same transaction and never wait. Joining gateways (more than one
+     * incoming flow) are never routed: the waiting token belongs to the engine's synchronization, cancelling it
+     * and starting the targets would run everything downstream once per branch.
+     *
+     * @param processInstanceId Process instance id
+     * @param gateway Gateway as returned by {@link #getGateways}
+     * @param variables Current process variables
+     * @return Target activity ids taken, empty if the gateway is left for a client decision
+     */
+    public List<String> routeGateway(String processInstanceId, Map<String, Object> gateway, Map<String, Object> variables) {
+        String gatewayId = (String) gateway.get("id");
+        String gatewayType = (String) gateway.get("type");
+        if (!gatewayConditionEvaluator.supports(gatewayType)) {
+            return Collections.emptyList();
+        }
+        
+        ProcessDefinitionModel model = processDefinitionModelCache.get((String) gateway.get("processDefinitionId"));
+        Optional<ProcessDefinitionModel.Gateway> definition = model.getGateways().stream()
+                .filter(candidate -> candidate.getId().equals(gatewayId))
+                .findFirst();
+        if (definition.isEmpty()) {
+            return Collections.emptyList();
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> transitionInstance = (Map<String, Object>) gateway.get("transitionInstance");
+        if (transitionInstance == null) {
+            log.info("Gateway {} in process instance {} has no token waiting before it, nothing to route",
+                    gatewayId, processInstanceId);
+            return Collections.emptyList();
+        }
+        if (isJoin(model, gatewayId)) {
+            log.info("Gateway {} in process instance {} is a join waiting for other branches, leaving it to the engine",
+                    gatewayId, processInstanceId);
+            return Collections.emptyList();
+        }
+        
+        List<String> targetActivityIds = gatewayConditionEvaluator.selectTargets(model, definition.get(), variables);
+        if (targetActivityIds.isEmpty()) {
+            log.info("No route could be selected for gateway {} in process instance {}", gatewayId, processInstanceId);
+            return targetActivityIds;
+        }
+        
+        // The waiting job of the gateway is cancelled with its transition instance
+        List<Map<String, Object>> instructions = startBeforeInstructions(targetActivityIds, null);
+        Map<String, Object> cancelInstruction = new HashMap<>();
+        cancelInstruction.put("type", "cancel");
+        cancelInstruction.put("transitionInstanceId", transitionInstance.get("id"));
+        instructions.add(cancelInstruction);
+        
+        camundaClient.modifyProcessInstance(processInstanceId, instructions);
+        log.info("Routed gateway {} in process instance {} to {}", gatewayId, processInstanceId, targetActivityIds);
+        return targetActivityIds;
+    }
+    
+    /**
+     * Returns true if more than one sequence flow leads into the gateway
+     */
+    private boolean isJoin(ProcessDefinitionModel model, String gatewayId) {
+        return model.getSequenceFlows().values().stream()
+                .filter(flow -> gatewayId.equals(flow.getTargetRef()))
+                .count() > 1;
+    }
+    
     /**
      * Execute an exclusive gateway by selecting one outgoing path
      */
@@ -127,69 +167,55 @@ public class GatewayService {
     }
     
     /**
-     * Parse BPMN XML to find gateways
+     * Builds mutable gateway descriptions from a cached process definition model
      */
-    private List<Map<String, Object>> parseGatewaysFromXml(String bpmnXml) {
+    private List<Map<String, Object>> toGatewayInfo(ProcessDefinitionModel model) {
         List<Map<String, Object>> gateways = new ArrayList<>();
         
-        try {
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(new InputSource(new StringReader(bpmnXml)));
-            
-            // Find all gateway types
-            findGatewaysByType(document, EXCLUSIVE_GATEWAY, "Exclusive Gateway (XOR)", gateways);
-            findGatewaysByType(document, PARALLEL_GATEWAY, "Parallel Gateway (AND)", gateways);
-            findGatewaysByType(document, INCLUSIVE_GATEWAY, "Inclusive Gateway (OR)", gateways);
-            findGatewaysByType(document, EVENT_BASED_GATEWAY, "Event-Based Gateway", gateways);
-            findGatewaysByType(document, COMPLEX_GATEWAY, "Complex Gateway", gateways);
-            
-        } catch (Exception e) {
-            log.error("Error parsing BPMN XML", e);
+        for (ProcessDefinitionModel.Gateway gateway : model.getGateways()) {
+            Map<String, Object> gatewayInfo = new HashMap<>();
+            gatewayInfo.put("id", gateway.getId());
+            gatewayInfo.put("name", gateway.getName());
+            gatewayInfo.put("type", gateway.getType());
+            gatewayInfo.put("outgoingFlows", new ArrayList<>(gateway.getOutgoingFlows()));
+            gateways.add(gatewayInfo);
         }
         
         return gateways;
     }
     
     /**
-     * Find gateways of a specific type in the BPMN XML
+     * Creates an instruction to start before each target activity
      */
-    private void findGatewaysByType(Document document, String gatewayType, String gatewayName, List<Map<String, Object>> gateways) {
-        NodeList gatewayNodes = document.getElementsByTagNameNS("http://www.omg.org/spec/BPMN/20100524/MODEL", gatewayType);
+    private List<Map<String, Object>> startBeforeInstructions(List<String> targetActivityIds, Map<String, Object> variables) {
+        List<Map<String, Object>> instructions = new ArrayList<>();
         
-        for (int i = 0; i < gatewayNodes.getLength(); i++) {
-            Element gateway = (Element) gatewayNodes.item(i);
-            String id = gateway.getAttribute("id");
-            String name = gateway.getAttribute("name");
+        for (String activityId : targetActivityIds) {
+            Map<String, Object> instruction = new HashMap<>();
+            instruction.put("type", "startBeforeActivity");
+            instruction.put("activityId", activityId);
             
-            if (name == null || name.isEmpty()) {
-                name = gatewayName + " " + (i + 1);
+            // Add variables if provided
+            if (variables != null && !variables.isEmpty()) {
+                instruction.put("variables", formatVariablesForModification(variables));
             }
             
-            Map<String, Object> gatewayInfo = new HashMap<>();
-            gatewayInfo.put("id", id);
-            gatewayInfo.put("name", name);
-            gatewayInfo.put("type", gatewayType);
-            
-            // Find outgoing sequence flows
-            NodeList outgoing = gateway.getElementsByTagNameNS("http://www.omg.org/spec/BPMN/20100524/MODEL", "outgoing");
-            List<String> outgoingFlows = new ArrayList<>();
-            
-            for (int j = 0; j < outgoing.getLength(); j++) {
-                outgoingFlows.add(outgoing.item(j).getTextContent());
-            }
-            
-            gatewayInfo.put("outgoingFlows", outgoingFlows);
-            gateways.add(gatewayInfo);
+            instructions.add(instruction);
         }
+        
+        return instructions;
     }
     
     /**
-     * Enrich gateway information with activity instance data
+     * Enrich gateway information with activity instance data.
+     * A gateway is active when a token is in it (a join waiting for other branches) or waiting before it
+     * (the job of an asynchronous gateway, listed as a transition instance)
      */
     private void enrichGatewaysWithInstanceInfo(List<Map<String, Object>> gateways, Map<String, Object> activityInstances) {
         @SuppressWarnings("unchecked")
         List<Map<String, Object>> childActivityInstances = (List<Map<String, Object>>) activityInstances.get("childActivityInstances");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> childTransitionInstances = (List<Map<String, Object>>) activityInstances.get("childTransitionInstances");
         
         for (Map<String, Object> gateway : gateways) {
             String gatewayId = (String) gateway.get("id");
@@ -205,7 +231,17 @@ public class GatewayService {
                 }
             }
             
-            // If no activity instance found, gateway is not active
+            if (childTransitionInstances != null) {
+                for (Map<String, Object> transitionInstance : childTransitionInstances) {
+                    if (gatewayId.equals(transitionInstance.get("activityId"))) {
+                        gateway.put("transitionInstance", transitionInstance);
+                        gateway.put("active", true);
+                        break;
+                    }
+                }
+            }
+            
+            // If no activity or transition instance found, gateway is not active
             if (!gateway.containsKey("active")) {
                 gateway.put("active", false);
             }
@@ -0,0 +1,172 @@
+package com.example.service;
+
+import com.example.client.CamundaClient;
+import com.example.model.dto.ProcessDefinitionModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of parsed process definition models keyed by process definition id.
+ * Models are loaded lazily: the BPMN XML is downloaded and parsed with a streaming (StAX) reader
+ * the first time a definition is inspected.
+ */
+@Slf4j
+@Component
+public class ProcessDefinitionModelCache {
+    private static final String BPMN_NAMESPACE = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+
+    // Gateway type -> default display name, in the order gateways are reported
+    private static final Map<String, String> GATEWAY_TYPES = new LinkedHashMap<>();
+
+    static {
+        GATEWAY_TYPES.put("exclusiveGateway", "Exclusive Gateway (XOR)");
+        GATEWAY_TYPES.put("parallelGateway", "Parallel Gateway (AND)");
+        GATEWAY_TYPES.put("inclusiveGateway", "Inclusive Gateway (OR)");
+        GATEWAY_TYPES.put("eventBasedGateway", "Event-Based Gateway");
+        GATEWAY_TYPES.put("complexGateway", "Complex Gateway");
+    }
+
+    private final CamundaClient camundaClient;
+    private final XMLInputFactory xmlInputFactory;
+    private final Map<String, ProcessDefinitionModel> models;
+
+    public ProcessDefinitionModelCache(CamundaClient camundaClient,
+                                       @Value("${process-model-cache.max-size:256}") int maxSize) {
+        this.camundaClient = camundaClient;
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.models = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProcessDefinitionModel> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the model of a process definition, loading it on first use.
+     *
+     * @param processDefinitionId Process definition id
+     * @return Parsed model
+     */
+    public ProcessDefinitionModel get(String processDefinitionId) {
+        synchronized (models) {
+            ProcessDefinitionModel model = models.get(processDefinitionId);
+            if (model != null) {
+                return model;
+            }
+        }
+
+        // Parse outside the lock; a concurrent load of the same definition yields an equal model
+        ProcessDefinitionModel model = parse(processDefinitionId, camundaClient.getProcessDefinitionXml(processDefinitionId));
+        synchronized (models) {
+            models.putIfAbsent(processDefinitionId, model);
+        }
+        log.debug("Loaded process definition model {}: {} gateways, {} sequence flows",
+                processDefinitionId, model.getGateways().size(), model.getSequenceFlows().size());
+        return model;
+    }
+
+    /**
+     * Returns the number of cached models
+     */
+    public int size() {
+        synchronized (models) {
+            return models.size();
+        }
+    }
+
+    /**
+     * Parses gateways and sequence flows from BPMN XML in a single streaming pass
+     */
+    ProcessDefinitionModel parse(String processDefinitionId, String bpmnXml) {
+        Map<String, List<ProcessDefinitionModel.Gateway>> gatewaysByType = new LinkedHashMap<>();
+        GATEWAY_TYPES.keySet().forEach(type -> gatewaysByType.put(type, new ArrayList<>()));
+        Map<String, ProcessDefinitionModel.SequenceFlow> sequenceFlows = new LinkedHashMap<>();
+
+        XMLStreamReader reader = null;
+        try {
+            reader = xmlInputFactory.createXMLStreamReader(new StringReader(bpmnXml));
+
+            String gatewayType = null;
+            String gatewayId = null;
+            String gatewayName = null;
+            String gatewayDefault = null;
+            List<String> outgoingFlows = null;
+
+            String flowId = null;
+            String flowName = null;
+            String flowSource = null;
+            String flowTarget = null;
+            String flowCondition = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && BPMN_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    String element = reader.getLocalName();
+                    if (GATEWAY_TYPES.containsKey(element)) {
+                        gatewayType = element;
+                        gatewayId = reader.getAttributeValue(null, "id");
+                        gatewayName = reader.getAttributeValue(null, "name");
+                        gatewayDefault = reader.getAttributeValue(null, "default");
+                        outgoingFlows = new ArrayList<>();
+                    } else if ("outgoing".equals(element) && gatewayType != null) {
+                        outgoingFlows.add(reader.getElementText().trim());
+                    } else if ("sequenceFlow".equals(element)) {
+                        flowId = reader.getAttributeValue(null, "id");
+                        flowName = reader.getAttributeValue(null, "name");
+                        flowSource = reader.getAttributeValue(null, "sourceRef");
+                        flowTarget = reader.getAttributeValue(null, "targetRef");
+                        flowCondition = null;
+                    } else if ("conditionExpression".equals(element) && flowId != null) {
+                        flowCondition = reader.getElementText().trim();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && BPMN_NAMESPACE.equals(reader.getNamespaceURI())) {
+                    String element = reader.getLocalName();
+                    if (element.equals(gatewayType)) {
+                        List<ProcessDefinitionModel.Gateway> gateways = gatewaysByType.get(gatewayType);
+                        String name = gatewayName == null || gatewayName.isEmpty()
+                                ? GATEWAY_TYPES.get(gatewayType) + " " + (gateways.size() + 1)
+                                : gatewayName;
+                        gateways.add(new ProcessDefinitionModel.Gateway(gatewayId, name, gatewayType, gatewayDefault,
+                                List.copyOf(outgoingFlows)));
+                        gatewayType = null;
+                    } else if ("sequenceFlow".equals(element) && flowId != null) {
+                        sequenceFlows.put(flowId, new ProcessDefinitionModel.SequenceFlow(flowId, flowName, flowSource,
+                                flowTarget, flowCondition == null || flowCondition.isEmpty() ? null : flowCondition));
+                        flowId = null;
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            // Not cached, the next request retries
+            throw new IllegalStateException("Error parsing BPMN XML of process definition: " + processDefinitionId, e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    log.debug("Error closing BPMN XML reader", e);
+                }
+            }
+        }
+
+        List<ProcessDefinitionModel.Gateway> gateways = new ArrayList<>();
+        gatewaysByType.values().forEach(gateways::addAll);
+        return new ProcessDefinitionModel(processDefinitionId, Collections.unmodifiableList(gateways),
+                Collections.unmodifiableMap(sequenceFlows));
+    }
+}
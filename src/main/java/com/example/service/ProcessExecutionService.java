@@ -1,111 +1,315 @@
 package com.example.service;
 
-import com.example.client.CamundaRestClient;
+import com.example.client.CamundaClient;
 import com.example.handler.TaskExecutionService;
 import com.example.model.entity.BpmnProcess;
-import com.example.model.entity.TaskApiMapping;
-import com.example.repository.TaskApiMappingRepository;
+import com.example.model.dto.ProcessStartResult;
+import com.example.model.dto.TaskMappingSnapshot;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.persistence.EntityNotFoundException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ProcessExecutionService {
-    private final CamundaRestClient camundaRestClient;
+    private final CamundaClient camundaClient;
     private final BpmnDeploymentService bpmnDeploymentService;
-    private final TaskApiMappingRepository taskApiMappingRepository;
+    private final TaskMappingRegistry taskMappingRegistry;
     private final TaskExecutionService taskExecutionService;
     private final GatewayService gatewayService;
 
+    // Evaluate gateway conditions in-process instead of waiting for a client decision
+    @Value("${gateway.auto-routing:false}")
+    private boolean gatewayAutoRouting;
+
+    // Created tasks are pushed by the engine (see TaskContinuationPlugin) instead of being polled for
+    @Value("${task-continuation.enabled:false}")
+    private boolean taskContinuation;
+
+    @Value("${camunda.client.mode:rest}")
+    private String clientMode;
+
+    // Open tasks found after a completion run side by side instead of one after another
+    @Value("${task-execution.next-tasks.parallel:false}")
+    private boolean parallelNextTasks;
+
+    @Value("${task-execution.next-tasks.threads:8}")
+    private int nextTaskThreads;
+
+    @Value("${task-execution.next-tasks.queue-capacity:100}")
+    private int nextTaskQueueCapacity;
+
+    // Process instances started per engine round trip by bulk starts
+    @Value("${process-start.batch-size:100}")
+    private int bulkStartBatchSize;
+
+    private ExecutorService nextTaskExecutor;
+
+    // Tasks being executed, so a manual execution and an engine-reported continuation never run the same task
+    private final Set<String> executingTasks = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        if (!parallelNextTasks) {
+            return;
+        }
+        // Bounded: when the queue is full the completing thread runs the API call itself
+        AtomicInteger counter = new AtomicInteger();
+        nextTaskExecutor = new ThreadPoolExecutor(nextTaskThreads, nextTaskThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(nextTaskQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "next-task-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (nextTaskExecutor != null) {
+            nextTaskExecutor.shutdown();
+        }
+    }
+
     @Transactional
     public String startProcess(String processKey, Map<String, Object> variables) {
         // Get BPMN process
         BpmnProcess bpmnProcess = bpmnDeploymentService.getBpmnProcessByKey(processKey);
         
         // Start process instance using REST client
-        String processInstanceId = camundaRestClient.startProcess(bpmnProcess.getProcessKey(), variables);
+        String processInstanceId = camundaClient.startProcess(bpmnProcess.getProcessKey(), variables);
         log.info("Started process instance: {} for process: {}", processInstanceId, processKey);
 
+        return processInstanceId;
+    }
 
-        try {
-            // Add a small delay
-            Thread.sleep(100);
-            
-            // Check process variable
-            /*
-            Map<String, Object> processVariables = camundaRestClient.getProcessVariables(processInstanceId);
-            log.info("Process variables after start: {}", processVariables);
-            
-            // Check external tasks
-            List<Map<String, Object>> externalTasks = camundaRestClient.getExternalTasksByProcessInstanceId(processInstanceId);
-            log.info("Found {} external tasks for process instance: {}", externalTasks.size(), processInstanceId);
-            
-            if (externalTasks.isEmpty()) {
-                log.warn("No external tasks found for process instance: {}. This might be because:", processInstanceId);
-                log.warn("1. The process might not be using External Tasks");
-                log.warn("2. The process might have completed immediately");
-                log.warn("3. There might be an issue with the process definition");
-                log.warn("4. The External Task Worker might not be properly configured");
+    /**
+     * Starts one process instance per variable set.
+     * Variable sets are read lazily and started in batches, so large imports can be streamed;
+     * each result is reported on the calling thread, in input order, as soon as its batch is done.
+     * If the input turns out to be malformed, the variable sets read before are still started and a last result
+     * with the index of the first unread entry reports the parse error.
+     *
+     * @param processKey Process key
+     * @param variableSets Variable sets of the instances to start
+     * @param resultConsumer Receives the result of every start
+     */
+    public void startProcesses(String processKey, Iterator<Map<String, Object>> variableSets,
+                               Consumer<ProcessStartResult> resultConsumer) {
+        // Resolved once for the whole import
+        BpmnProcess bpmnProcess = bpmnDeploymentService.getBpmnProcessByKey(processKey);
+
+        List<Map<String, Object>> batch = new ArrayList<>(bulkStartBatchSize);
+        int index = 0;
+        int started = 0;
+        String readError = null;
+        boolean hasNext = true;
+        while (hasNext) {
+            Map<String, Object> variables = null;
+            try {
+                hasNext = variableSets.hasNext();
+                if (hasNext) {
+                    variables = variableSets.next();
+                }
+            } catch (RuntimeException e) {
+                readError = "Invalid input: " + e.getMessage();
+                hasNext = false;
             }
-            
-            // Check for active gateways
-            //checkAndHandleActiveGateways(processInstanceId);
 
+            if (hasNext) {
+                batch.add(variables != null ? variables : Map.of());
+                if (batch.size() < bulkStartBatchSize) {
+                    continue;
+                }
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
 
-             */
-            return processInstanceId;
-        } catch (InterruptedException e) {
-            log.error("Error while waiting for tasks", e);
-            return processInstanceId;
+            List<CompletableFuture<String>> results = camundaClient.startProcesses(bpmnProcess.getProcessKey(), batch);
+            for (CompletableFuture<String> result : results) {
+                try {
+                    resultConsumer.accept(new ProcessStartResult(index, result.join(), null));
+                    started++;
+                } catch (CompletionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    resultConsumer.accept(new ProcessStartResult(index, null, cause.getMessage()));
+                }
+                index++;
+            }
+            batch.clear();
         }
 
+        if (readError != null) {
+            // Entries from this index on were never read
+            log.warn("Bulk start input for process {} is malformed after {} entries: {}", processKey, index, readError);
+            resultConsumer.accept(new ProcessStartResult(index, null, readError));
+        }
+        log.info("Started {} of {} process instances for process: {}", started, index, processKey);
     }
 
     @Transactional
     public void executeTask(String taskId) {
+        if (!executingTasks.add(taskId)) {
+            throw new IllegalStateException("Task is already being executed: " + taskId);
+        }
+        try {
+            executeClaimedTask(taskId);
+        } finally {
+            releaseAfterCompletion(taskId);
+        }
+    }
+
+    private void executeClaimedTask(String taskId) {
         // Get task details
-        Map<String, Object> taskDetails = camundaRestClient.getTask(taskId);
+        Map<String, Object> taskDetails = camundaClient.getTask(taskId);
         String processInstanceId = (String) taskDetails.get("processInstanceId");
         String taskDefinitionKey = (String) taskDetails.get("taskDefinitionKey");
 
         // Get process variables
-        Map<String, Object> variables = camundaRestClient.getProcessVariables(processInstanceId);
+        Map<String, Object> variables = getPlainVariables(processInstanceId);
 
         // Get BPMN process
         BpmnProcess bpmnProcess = bpmnDeploymentService.getBpmnProcessByKey((String) taskDetails.get("processDefinitionKey"));
 
         // Execute task mapping
-        TaskApiMapping taskMapping = taskApiMappingRepository
-                .findByBpmnProcessIdAndTaskId(bpmnProcess.getId(), taskDefinitionKey)
+        TaskMappingSnapshot taskMapping = taskMappingRegistry
+                .find(bpmnProcess.getId(), taskDefinitionKey)
                 .orElseThrow(() -> new EntityNotFoundException("Task mapping not found for task: " + taskDefinitionKey));
 
         // Execute API call
-        taskExecutionService.executeTask(bpmnProcess.getId(), taskDefinitionKey, variables);
+        Map<String, Object> result = taskExecutionService.executeTask(taskMapping, variables);
 
-        // Complete the task
-        camundaRestClient.completeTask(taskId, variables);
+        // Complete the task, only new and changed variables are sent back
+        camundaClient.completeTask(taskId, result);
         log.info("Successfully completed task: {}", taskId);
 
-        // Execute next tasks
-        executeNextTasks(processInstanceId, bpmnProcess.getId());
+        // Execute next tasks, unless the engine reports created tasks itself
+        if (!isEventDrivenContinuation()) {
+            executeNextTasks(processInstanceId, bpmnProcess.getId());
+        }
         
-        // Check for active gateways
-        //checkAndHandleActiveGateways(processInstanceId);
+        // Route gateways waiting in the process instance
+        if (gatewayAutoRouting) {
+            checkAndHandleActiveGateways(processInstanceId);
+        }
+    }
+
+    /**
+     * Executes a task reported by the engine right after it was created.
+     * Tasks without a task mapping are left for users.
+     */
+    @Transactional
+    public void continueTask(String taskId, String processInstanceId, String processDefinitionKey, String taskDefinitionKey) {
+        Optional<TaskMappingSnapshot> taskMapping = taskMappingRegistry.findByProcessKey(processDefinitionKey, taskDefinitionKey);
+        if (taskMapping.isEmpty()) {
+            log.debug("No task mapping for created task: {} ({}), leaving it for users", taskId, taskDefinitionKey);
+            return;
+        }
+
+        if (!executingTasks.add(taskId)) {
+            log.info("Created task {} is already being executed, skipping", taskId);
+            return;
+        }
+        try {
+            // The task may have been executed through the API while it was queued
+            if (!isOpen(taskId)) {
+                log.info("Created task {} is no longer open, skipping", taskId);
+                return;
+            }
+            continueClaimedTask(taskId, processInstanceId, taskDefinitionKey, taskMapping.get());
+        } finally {
+            releaseAfterCompletion(taskId);
+        }
+    }
+
+    private void continueClaimedTask(String taskId, String processInstanceId, String taskDefinitionKey,
+                                     TaskMappingSnapshot taskMapping) {
+        log.info("Executing created task: {} ({}) of process instance: {}", taskId, taskDefinitionKey, processInstanceId);
+        Map<String, Object> variables = getPlainVariables(processInstanceId);
+        Map<String, Object> result = taskExecutionService.executeTask(taskMapping, variables);
+
+        // Completing creates the next tasks, which are reported again after commit
+        camundaClient.completeTask(taskId, result);
+        log.info("Successfully completed task: {}", taskId);
+
+        if (gatewayAutoRouting) {
+            checkAndHandleActiveGateways(processInstanceId);
+        }
+    }
+
+    private boolean isOpen(String taskId) {
+        try {
+            return camundaClient.getTask(taskId) != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Releases an executing task once the surrounding transaction has finished,
+     * so the completion is visible before another execution may claim the task
+     */
+    private void releaseAfterCompletion(String taskId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    executingTasks.remove(taskId);
+                }
+            });
+        } else {
+            executingTasks.remove(taskId);
+        }
+    }
+
+    /**
+     * Process variables as plain values, so templates render values and mapped results can be compared
+     * with what was fetched when building the variables to write back
+     */
+    private Map<String, Object> getPlainVariables(String processInstanceId) {
+        return CamundaClient.plainValues(camundaClient.getProcessVariables(processInstanceId));
+    }
+
+    private boolean isEventDrivenContinuation() {
+        return taskContinuation && "embedded".equals(clientMode);
     }
 
     private void executeNextTasks(String processInstanceId, Long bpmnProcessId) {
-        List<Map<String, Object>> tasks = camundaRestClient.getTasksByProcessInstanceId(processInstanceId);
+        List<Map<String, Object>> tasks = camundaClient.getTasksByProcessInstanceId(processInstanceId);
 
         log.info("Found {} tasks to execute for process instance: {}", tasks.size(), processInstanceId);
 
+        if (parallelNextTasks && tasks.size() > 1) {
+            executeNextTasksInParallel(processInstanceId, bpmnProcessId, tasks);
+            return;
+        }
+
         for (Map<String, Object> task : tasks) {
             try {
                 String taskId = (String) task.get("id");
@@ -114,16 +318,16 @@ public class ProcessExecutionService {
 
                 log.info("Executing task: {} ({})", taskName, taskId);
 
-                Map<String, Object> variables = camundaRestClient.getProcessVariables(processInstanceId);
-                TaskApiMapping taskMapping = taskApiMappingRepository
-                        .findByBpmnProcessIdAndTaskId(bpmnProcessId, taskDefinitionKey)
+                Map<String, Object> variables = getPlainVariables(processInstanceId);
+                TaskMappingSnapshot taskMapping = taskMappingRegistry
+                        .find(bpmnProcessId, taskDefinitionKey)
                         .orElseThrow(() -> new EntityNotFoundException("Task mapping not found for task: " + taskDefinitionKey));
 
                 // Execute API call
-                taskExecutionService.executeTask(bpmnProcessId, taskDefinitionKey, variables);
+                Map<String, Object> result = taskExecutionService.executeTask(taskMapping, variables);
 
-                // Complete the task
-                camundaRestClient.completeTask(taskId, variables);
+                // Complete the task, only new and changed variables are sent back
+                camundaClient.completeTask(taskId, result);
                 log.info("Successfully completed task: {}", taskId);
             } catch (Exception e) {
                 log.error("Error executing task: {}", task.get("id"), e);
@@ -132,8 +336,41 @@ public class ProcessExecutionService {
         }
     }
 
+    /**
+     * Executes open tasks of an instance side by side, e.g. the branches after a parallel gateway.
+     * Variables are fetched once and the API calls run concurrently; completions are then sent one after another,
+     * so branches joining in the engine do not conflict. A failing task does not stop the others.
+     */
+    private void executeNextTasksInParallel(String processInstanceId, Long bpmnProcessId, List<Map<String, Object>> tasks) {
+        Map<String, Object> variables = Collections.unmodifiableMap(getPlainVariables(processInstanceId));
+
+        Map<String, CompletableFuture<Map<String, Object>>> results = new LinkedHashMap<>();
+        for (Map<String, Object> task : tasks) {
+            String taskId = (String) task.get("id");
+            String taskDefinitionKey = (String) task.get("taskDefinitionKey");
+            log.info("Executing task: {} ({})", task.get("name"), taskId);
+
+            results.put(taskId, CompletableFuture.supplyAsync(() -> {
+                TaskMappingSnapshot taskMapping = taskMappingRegistry
+                        .find(bpmnProcessId, taskDefinitionKey)
+                        .orElseThrow(() -> new EntityNotFoundException("Task mapping not found for task: " + taskDefinitionKey));
+                return taskExecutionService.executeTask(taskMapping, variables);
+            }, nextTaskExecutor));
+        }
+
+        results.forEach((taskId, result) -> {
+            try {
+                camundaClient.completeTask(taskId, result.join());
+                log.info("Successfully completed task: {}", taskId);
+            } catch (Exception e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                log.error("Error executing task: {}", taskId, cause);
+            }
+        });
+    }
+
     public List<Map<String, Object>> getActiveTasks(String processInstanceId) {
-        List<Map<String, Object>> tasks = camundaRestClient.getTasksByProcessInstanceId(processInstanceId);
+        List<Map<String, Object>> tasks = camundaClient.getTasksByProcessInstanceId(processInstanceId);
         log.info("Found {} active tasks for process instance: {}", tasks.size(), processInstanceId);
         return tasks;
     }
@@ -177,7 +414,7 @@ public class ProcessExecutionService {
         
         try {
             // Get process variables
-            Map<String, Object> variables = camundaRestClient.getProcessVariables(processInstanceId);
+            Map<String, Object> variables = camundaClient.getProcessVariables(processInstanceId);
             
             // Handle gateway based on type
             switch (gatewayType) {
@@ -208,59 +445,36 @@ public class ProcessExecutionService {
     
     /**
      * Handle an exclusive gateway
-     * For automatic handling, we need to determine which path to take based on variables
-     * This is a simplified implementation that would need to be customized for real use cases
+     * The first outgoing flow whose condition holds is taken
      */
     private void handleExclusiveGateway(String processInstanceId, Map<String, Object> gateway, Map<String, Object> variables) {
-        String gatewayId = (String) gateway.get("id");
-        
-        // In a real implementation, you would:
-        // 1. Parse the BPMN XML to find the conditions on each outgoing sequence flow
-        // 2. Evaluate each condition against the current variables
-        // 3. Select the path with the first condition that evaluates to true
-        
-        log.info("Exclusive gateway {} requires manual decision or condition evaluation", gatewayId);
-        
-        // For now, we'll just log that manual intervention is needed
-        // In a real implementation, you might want to:
-        // - Look up a configuration for this gateway
-        // - Evaluate JavaScript conditions from the BPMN
-        // - Use a rules engine
-        // - Call an external service to make the decision
+        routeGateway(processInstanceId, gateway, variables);
     }
     
     /**
      * Handle a parallel gateway
-     * Parallel gateways should activate all outgoing paths
+     * Parallel gateways activate all outgoing paths
      */
     private void handleParallelGateway(String processInstanceId, Map<String, Object> gateway, Map<String, Object> variables) {
-        String gatewayId = (String) gateway.get("id");
-        
-        // For parallel gateways, we need to find all outgoing paths and activate them
-        // This would require parsing the BPMN XML to find the target activities
-        
-        log.info("Parallel gateway {} should activate all outgoing paths", gatewayId);
-        
-        // In a real implementation, you would:
-        // 1. Parse the BPMN XML to find all outgoing sequence flows
-        // 2. Determine the target activities for each flow
-        // 3. Activate all target activities
+        routeGateway(processInstanceId, gateway, variables);
     }
     
     /**
      * Handle an inclusive gateway
-     * For automatic handling, we need to determine which paths to take based on variables
+     * Every outgoing flow whose condition holds for the current variables is taken
      */
     private void handleInclusiveGateway(String processInstanceId, Map<String, Object> gateway, Map<String, Object> variables) {
-        String gatewayId = (String) gateway.get("id");
-        
-        // Similar to exclusive gateway, but multiple paths can be taken
-        
-        log.info("Inclusive gateway {} requires condition evaluation for multiple paths", gatewayId);
-        
-        // In a real implementation, you would:
-        // 1. Parse the BPMN XML to find the conditions on each outgoing sequence flow
-        // 2. Evaluate each condition against the current variables
-        // 3. Select all paths with conditions that evaluate to true
+        routeGateway(processInstanceId, gateway, variables);
+    }
+    
+    /**
+     * Routes an asynchronous gateway in-process instead of waiting for the job executor;
+     * gateways whose conditions can not be evaluated are left for a client decision
+     */
+    private void routeGateway(String processInstanceId, Map<String, Object> gateway, Map<String, Object> variables) {
+        List<String> targets = gatewayService.routeGateway(processInstanceId, gateway, variables);
+        if (targets.isEmpty()) {
+            log.info("Gateway {} requires manual decision through the gateway API", gateway.get("id"));
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.example.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes newly created user tasks that have a task mapping as soon as the engine has committed them.
+ * Tasks are reported by the TaskContinuationPlugin; tasks without a mapping are left for users.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnExpression("'${camunda.client.mode:rest}' == 'embedded' and ${task-continuation.enabled:false}")
+public class TaskContinuationDispatcher {
+
+    private final ProcessExecutionService processExecutionService;
+
+    @Value("${task-continuation.threads:4}")
+    private int threads;
+
+    @Value("${task-continuation.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // Delay before a task rejected by the full queue is offered again
+    @Value("${task-continuation.retry-delay:1000}")
+    private long retryDelay;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "task-continuation-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queues a created task for execution. Called after the creating transaction committed.
+     * While the queue is full the task is offered again after task-continuation.retry-delay, off the engine's thread,
+     * so a burst of created tasks slows the chain down instead of stopping it.
+     */
+    public void onTaskCreated(String taskId, String processInstanceId, String processDefinitionKey, String taskDefinitionKey) {
+        try {
+            executor.execute(() -> {
+                try {
+                    processExecutionService.continueTask(taskId, processInstanceId, processDefinitionKey, taskDefinitionKey);
+                } catch (Exception e) {
+                    log.error("Error executing created task: {} ({}) of process instance: {}",
+                            taskId, taskDefinitionKey, processInstanceId, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            if (executor.isShutdown()) {
+                log.warn("Task continuation is shutting down, task {} of process instance {} is left for manual execution",
+                        taskId, processInstanceId);
+                return;
+            }
+            log.warn("Task continuation queue is full, offering task {} of process instance {} again in {}ms",
+                    taskId, processInstanceId, retryDelay);
+            CompletableFuture.delayedExecutor(retryDelay, TimeUnit.MILLISECONDS).execute(
+                    () -> onTaskCreated(taskId, processInstanceId, processDefinitionKey, taskDefinitionKey));
+        }
+    }
+}
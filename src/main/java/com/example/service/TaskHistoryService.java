@@ -0,0 +1,57 @@
+package com.example.service;
+
+import com.example.client.CamundaClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Looks up the history of single tasks by id.
+ * Completed tasks never change again, so their history is kept in a small least-recently-used cache;
+ * active tasks are always read from the engine.
+ */
+@Slf4j
+@Service
+public class TaskHistoryService {
+
+    private final CamundaClient camundaClient;
+    private final Map<String, Map<String, Object>> completedTasks;
+
+    public TaskHistoryService(CamundaClient camundaClient,
+                              @Value("${task-history.cache-size:1000}") int cacheSize) {
+        this.camundaClient = camundaClient;
+        this.completedTasks = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, Object>> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the history of a task
+     *
+     * @param taskId Task id
+     * @return Task history, or null if the task is unknown
+     */
+    public Map<String, Object> getTaskHistory(String taskId) {
+        synchronized (completedTasks) {
+            Map<String, Object> cached = completedTasks.get(taskId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        Map<String, Object> task = camundaClient.getTaskHistory(taskId);
+        if (task != null && task.get("endTime") != null) {
+            synchronized (completedTasks) {
+                completedTasks.put(taskId, task);
+            }
+            log.debug("Cached history of completed task: {}", taskId);
+        }
+        return task;
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.service;
+
+/**
+ * Published when a task mapping is created, updated or deleted.
+ * Listeners bound to the transaction receive it after commit.
+ *
+ * @param taskId Task id (topic) of the changed mapping, null if unknown
+ */
+public record TaskMappingChangedEvent(String taskId) {
+}
@@ -0,0 +1,236 @@
+package com.example.service;
+
+import com.example.model.dto.TaskMappingSnapshot;
+import com.example.model.entity.BpmnProcess;
+import com.example.model.entity.TaskApiMapping;
+import com.example.repository.BpmnProcessRepository;
+import com.example.repository.TaskApiMappingRepository;
+import com.example.util.CompiledTemplate;
+import com.example.util.JsonPathTree;
+import com.example.util.JsonUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Read-through, in-memory registry of task mapping snapshots.
+ * Each mapping is loaded from the database once and kept as an immutable {@link TaskMappingSnapshot};
+ * the registry is invalidated whenever a mapping is created, updated or deleted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskMappingRegistry {
+    private static final String RESPONSE_PREFIX = "response.";
+    private static final String ALL_VARIABLES = "*";
+
+    private final TaskApiMappingRepository taskApiMappingRepository;
+    private final BpmnProcessRepository bpmnProcessRepository;
+    private final JsonUtils jsonUtils;
+
+    // Lookups are cached including misses, so unmapped tasks do not hit the database either
+    private final Map<String, Optional<TaskMappingSnapshot>> byProcessAndTaskId = new ConcurrentHashMap<>();
+    private final Map<String, Optional<TaskMappingSnapshot>> byTaskId = new ConcurrentHashMap<>();
+    private final Map<String, Optional<Long>> bpmnProcessIdsByKey = new ConcurrentHashMap<>();
+
+    // Incremented on every invalidation so loads that raced with a change are not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Finds the mapping of a task within a BPMN process, falling back to the task id alone.
+     *
+     * @param bpmnProcessId BPMN process id, may be null
+     * @param taskId Task (activity) id
+     * @return Mapping snapshot if one exists
+     */
+    public Optional<TaskMappingSnapshot> find(Long bpmnProcessId, String taskId) {
+        if (bpmnProcessId != null) {
+            Optional<TaskMappingSnapshot> snapshot = lookup(byProcessAndTaskId, bpmnProcessId + ":" + taskId,
+                    () -> taskApiMappingRepository.findByBpmnProcessIdAndTaskId(bpmnProcessId, taskId));
+            if (snapshot.isPresent()) {
+                return snapshot;
+            }
+        }
+        return findByTaskId(taskId);
+    }
+
+    /**
+     * Finds the mapping of a task within the BPMN process registered under a process definition key,
+     * falling back to the task id alone.
+     *
+     * @param processKey Process definition key, may be null
+     * @param taskId Task (activity) id
+     * @return Mapping snapshot if one exists
+     */
+    public Optional<TaskMappingSnapshot> findByProcessKey(String processKey, String taskId) {
+        return find(processKey != null ? resolveBpmnProcessId(processKey).orElse(null) : null, taskId);
+    }
+
+    /**
+     * Finds the mapping of a task by task id.
+     *
+     * @param taskId Task (activity) id
+     * @return Mapping snapshot if one exists
+     */
+    public Optional<TaskMappingSnapshot> findByTaskId(String taskId) {
+        return lookup(byTaskId, taskId, () -> taskApiMappingRepository.findByTaskId(taskId));
+    }
+
+    /**
+     * Drops all snapshots.
+     * Inside a transaction this happens after commit, so readers never re-cache the old state.
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    /**
+     * Builds the snapshot of a mapping
+     */
+    public TaskMappingSnapshot toSnapshot(TaskApiMapping mapping) {
+        String versionKey = mapping.getId() + ":" + mapping.getUpdatedAt();
+
+        return TaskMappingSnapshot.builder()
+                .id(mapping.getId())
+                .bpmnProcessId(mapping.getBpmnProcess() != null ? mapping.getBpmnProcess().getId() : null)
+                .taskId(mapping.getTaskId())
+                .taskName(mapping.getTaskName())
+                .apiUrl(mapping.getApiUrl())
+                .httpMethod(HttpMethod.valueOf(mapping.getHttpMethod()))
+                .requestTemplate(CompiledTemplate.compile(mapping.getRequestTemplate()))
+                .headersTemplate(isBlank(mapping.getHeaders()) ? null : CompiledTemplate.compile(mapping.getHeaders()))
+                .responseMapping(JsonPathTree.compile(parsePaths(mapping.getResponseMapping(), true)))
+                .errorMapping(parsePaths(mapping.getErrorMapping(), false))
+                .requestSchema(mapping.getRequestSchema() != null
+                        ? jsonUtils.getJsonSchema(versionKey + ":requestSchema", mapping.getRequestSchema()) : null)
+                .responseSchema(mapping.getResponseSchema() != null
+                        ? jsonUtils.getJsonSchema(versionKey + ":responseSchema", mapping.getResponseSchema()) : null)
+                .maxRetries(mapping.getMaxRetries())
+                .retryTimeout(mapping.getRetryTimeout())
+                .incidentRetries(mapping.getIncidentRetries())
+                .incidentRetryTimeout(mapping.getIncidentRetryTimeout())
+                .timeout(mapping.getTimeout())
+                .failOnError(Boolean.TRUE.equals(mapping.getFailOnError()))
+                .enabled(Boolean.TRUE.equals(mapping.getEnabled()))
+                .writeBackAllVariables(Boolean.TRUE.equals(mapping.getWriteBackAllVariables()))
+                .localVariables(Boolean.TRUE.equals(mapping.getLocalVariables()))
+                .maxConcurrency(mapping.getMaxConcurrency())
+                .queueCapacity(mapping.getQueueCapacity())
+                .workerGroup(mapping.getWorkerGroup())
+                .updatedAt(mapping.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Returns the process variables a task needs: those referenced by its request and header templates
+     * plus the configured extra variables.
+     *
+     * @param mapping Task mapping
+     * @return Variable names, or null if all variables have to be fetched
+     */
+    public Set<String> getFetchVariables(TaskApiMapping mapping) {
+        Set<String> names = new LinkedHashSet<>();
+        if (!isBlank(mapping.getFetchVariables())) {
+            for (String name : mapping.getFetchVariables().split(",")) {
+                if (ALL_VARIABLES.equals(name.trim())) {
+                    return null;
+                }
+                if (!name.trim().isEmpty()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+
+        CompiledTemplate requestTemplate = CompiledTemplate.compile(mapping.getRequestTemplate());
+        if (requestTemplate != null) {
+            names.addAll(requestTemplate.getVariableNames());
+        }
+        if (!isBlank(mapping.getHeaders())) {
+            names.addAll(CompiledTemplate.compile(mapping.getHeaders()).getVariableNames());
+        }
+        return names;
+    }
+
+    private Optional<TaskMappingSnapshot> lookup(Map<String, Optional<TaskMappingSnapshot>> cache, String key,
+                                                 Supplier<Optional<TaskApiMapping>> loader) {
+        Optional<TaskMappingSnapshot> snapshot = cache.get(key);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        long loadGeneration = generation.get();
+        snapshot = loader.get().map(this::toSnapshot);
+        if (generation.get() == loadGeneration) {
+            cache.putIfAbsent(key, snapshot);
+        }
+        log.debug("Loaded task mapping snapshot for key {}: {}", key, snapshot.isPresent() ? "found" : "not found");
+        return snapshot;
+    }
+
+    private Optional<Long> resolveBpmnProcessId(String processKey) {
+        Optional<Long> bpmnProcessId = bpmnProcessIdsByKey.get(processKey);
+        if (bpmnProcessId != null) {
+            return bpmnProcessId;
+        }
+
+        long loadGeneration = generation.get();
+        bpmnProcessId = bpmnProcessRepository.findByProcessKey(processKey).map(BpmnProcess::getId);
+        if (generation.get() == loadGeneration) {
+            bpmnProcessIdsByKey.putIfAbsent(processKey, bpmnProcessId);
+        }
+        return bpmnProcessId;
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        byProcessAndTaskId.clear();
+        byTaskId.clear();
+        bpmnProcessIdsByKey.clear();
+        log.info("Task mapping registry invalidated");
+    }
+
+    /**
+     * Parses a {"target": "source.path"} mapping into pre-split source paths
+     */
+    private Map<String, String[]> parsePaths(String mappingJson, boolean stripResponsePrefix) {
+        if (mappingJson == null) {
+            return null;
+        }
+
+        Map<String, String[]> paths = new LinkedHashMap<>();
+        jsonUtils.jsonToStringMap(mappingJson).forEach((target, source) -> {
+            // Fix paths starting with "response."
+            if (stripResponsePrefix && source.startsWith(RESPONSE_PREFIX)) {
+                source = source.substring(RESPONSE_PREFIX.length());
+            }
+            paths.put(target, source.split("\\."));
+        });
+        return Collections.unmodifiableMap(paths);
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
@@ -5,6 +5,7 @@ import com.example.model.entity.BpmnProcess;
 import com.example.repository.TaskApiMappingRepository;
 import com.example.repository.BpmnProcessRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,13 +17,18 @@ import java.util.List;
 public class TaskMappingService {
     private final TaskApiMappingRepository taskApiMappingRepository;
     private final BpmnProcessRepository bpmnProcessRepository;
+    private final TaskMappingRegistry taskMappingRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public TaskApiMapping createTaskMapping(TaskApiMapping taskMapping) {
         BpmnProcess bpmnProcess = bpmnProcessRepository.findById(taskMapping.getBpmnProcess().getId())
                 .orElseThrow(() -> new EntityNotFoundException("BPMN process not found with id: " + taskMapping.getBpmnProcess().getId()));
         taskMapping.setBpmnProcess(bpmnProcess);
-        return taskApiMappingRepository.save(taskMapping);
+        TaskApiMapping saved = taskApiMappingRepository.save(taskMapping);
+        taskMappingRegistry.invalidate();
+        eventPublisher.publishEvent(new TaskMappingChangedEvent(saved.getTaskId()));
+        return saved;
     }
 
     @Transactional(readOnly = true)
@@ -36,7 +42,10 @@ public class TaskMappingService {
             throw new EntityNotFoundException("Task mapping not found with id: " + id);
         }
         taskMapping.setId(id);
-        return taskApiMappingRepository.save(taskMapping);
+        TaskApiMapping saved = taskApiMappingRepository.save(taskMapping);
+        taskMappingRegistry.invalidate();
+        eventPublisher.publishEvent(new TaskMappingChangedEvent(saved.getTaskId()));
+        return saved;
     }
 
     @Transactional
@@ -45,6 +54,8 @@ public class TaskMappingService {
             throw new EntityNotFoundException("Task mapping not found with id: " + id);
         }
         taskApiMappingRepository.deleteById(id);
+        taskMappingRegistry.invalidate();
+        eventPublisher.publishEvent(new TaskMappingChangedEvent(null));
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,186 @@
+package com.example.service;
+
+import com.example.client.CamundaClient;
+import com.example.client.CamundaEngineClient;
+import com.example.exception.BusinessException;
+import com.example.model.api.request.BulkTaskCompletionRequest;
+import com.example.model.api.response.TaskCompletionResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Completes many user tasks in one request.
+ * Tasks are completed with bounded parallelism and every task gets its own result;
+ * with the in-process engine they can instead be completed in a single transaction.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserTaskCompletionService {
+
+    private final CamundaClient camundaClient;
+    private final ObjectProvider<CamundaEngineClient> engineClientProvider;
+
+    @Value("${user-task.bulk.parallelism:8}")
+    private int parallelism;
+
+    // Upper bound of tasks per request, the request thread waits for all of them
+    @Value("${user-task.bulk.max-tasks:1000}")
+    private int maxTasks;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-task-completion-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Completes the tasks of a bulk request
+     *
+     * @return One result per task, in request order
+     * @throws BusinessException If the request is invalid or selects more than user-task.bulk.max-tasks tasks
+     */
+    public List<TaskCompletionResult> completeTasks(BulkTaskCompletionRequest request) {
+        if (request.isTransactional() && engineClientProvider.getIfAvailable() == null) {
+            throw new BusinessException("Transactional completion requires the embedded engine client");
+        }
+        // Listed tasks are checked before any query reaches the engine
+        checkSize(request.getTasks() != null ? request.getTasks().size() : 0);
+
+        List<BulkTaskCompletionRequest.TaskCompletion> completions = resolveTasks(request);
+        checkSize(completions.size());
+        log.info("Completing {} user tasks{}", completions.size(), request.isTransactional() ? " in one transaction" : "");
+
+        if (request.isTransactional()) {
+            return completeInTransaction(engineClientProvider.getObject(), completions);
+        }
+
+        List<CompletableFuture<TaskCompletionResult>> results = completions.stream()
+                .map(completion -> CompletableFuture.supplyAsync(() -> complete(completion), executor))
+                .collect(Collectors.toList());
+        return results.stream()
+                .map(CompletableFuture::join)
+                .collect(Collectors.toList());
+    }
+
+    private void checkSize(int taskCount) {
+        if (taskCount > maxTasks) {
+            throw new BusinessException("Bulk completion selects " + taskCount + " tasks, at most " + maxTasks
+                    + " are allowed per request");
+        }
+    }
+
+    private TaskCompletionResult complete(BulkTaskCompletionRequest.TaskCompletion completion) {
+        try {
+            camundaClient.completeTask(completion.getTaskId(), variablesOf(completion));
+            return TaskCompletionResult.builder().taskId(completion.getTaskId()).success(true).build();
+        } catch (Exception e) {
+            log.warn("Error completing task {}: {}", completion.getTaskId(), e.getMessage());
+            return TaskCompletionResult.builder().taskId(completion.getTaskId()).success(false).error(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Completes all tasks in one engine transaction; if one fails, none is completed.
+     * The failing task reports the engine's error, the others report that they were rolled back because of it.
+     */
+    private List<TaskCompletionResult> completeInTransaction(CamundaEngineClient engineClient,
+                                                             List<BulkTaskCompletionRequest.TaskCompletion> completions) {
+        AtomicReference<String> currentTaskId = new AtomicReference<>();
+        AtomicBoolean allCompleted = new AtomicBoolean();
+        String error = null;
+        String failedTaskId = null;
+        try {
+            engineClient.executeInTransaction(() -> {
+                for (BulkTaskCompletionRequest.TaskCompletion completion : completions) {
+                    currentTaskId.set(completion.getTaskId());
+                    engineClient.completeTask(completion.getTaskId(), variablesOf(completion));
+                }
+                allCompleted.set(true);
+            });
+        } catch (Exception e) {
+            error = e.getMessage();
+            // A failure after the last completion happened while committing and belongs to no single task
+            failedTaskId = allCompleted.get() ? null : currentTaskId.get();
+            log.warn("Transactional completion of {} tasks rolled back{}: {}", completions.size(),
+                    failedTaskId != null ? " at task " + failedTaskId : " on commit", error);
+        }
+
+        List<TaskCompletionResult> results = new ArrayList<>(completions.size());
+        for (BulkTaskCompletionRequest.TaskCompletion completion : completions) {
+            String taskError = null;
+            if (error != null) {
+                if (completion.getTaskId().equals(failedTaskId)) {
+                    taskError = error;
+                } else if (failedTaskId != null) {
+                    taskError = "Rolled back, task " + failedTaskId + " failed: " + error;
+                } else {
+                    taskError = "Rolled back, commit failed: " + error;
+                }
+            }
+            results.add(TaskCompletionResult.builder()
+                    .taskId(completion.getTaskId())
+                    .success(error == null)
+                    .error(taskError)
+                    .build());
+        }
+        return results;
+    }
+
+    /**
+     * Explicitly listed tasks first, then the open tasks selected by the query
+     */
+    private List<BulkTaskCompletionRequest.TaskCompletion> resolveTasks(BulkTaskCompletionRequest request) {
+        List<BulkTaskCompletionRequest.TaskCompletion> completions = new ArrayList<>();
+        if (request.getTasks() != null) {
+            completions.addAll(request.getTasks());
+        }
+
+        if (request.getProcessInstanceIds() != null) {
+            for (String processInstanceId : request.getProcessInstanceIds()) {
+                for (Map<String, Object> task : camundaClient.getTasksByProcessInstanceId(processInstanceId)) {
+                    if (request.getTaskDefinitionKey() != null
+                            && !request.getTaskDefinitionKey().equals(task.get("taskDefinitionKey"))) {
+                        continue;
+                    }
+                    BulkTaskCompletionRequest.TaskCompletion completion = new BulkTaskCompletionRequest.TaskCompletion();
+                    completion.setTaskId((String) task.get("id"));
+                    completion.setVariables(request.getVariables());
+                    completions.add(completion);
+                }
+            }
+        }
+        return completions;
+    }
+
+    private Map<String, Object> variablesOf(BulkTaskCompletionRequest.TaskCompletion completion) {
+        return completion.getVariables() != null ? completion.getVariables() : Map.of();
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.util;
+
+import com.example.exception.HostLimitExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-host concurrency limit of the non-blocking HTTP client.
+ * The JDK client keeps its own connections, outside the pooled HttpClient behind RestTemplate, so its
+ * limits are configured apart from rest-client.pool and default to the external task worker's max-in-flight.
+ * Requests over the limit wait without holding a thread and fail with {@link HostLimitExceededException}
+ * after the wait timeout; they were never sent and do not count against the endpoint.
+ */
+@Slf4j
+@Component
+public class AsyncHostLimiter {
+
+    @Value("${rest-client.async.default-max-per-host:${camunda.external-task.worker.max-in-flight:256}}")
+    private int defaultMaxPerHost;
+
+    // Comma separated "scheme://host[:port]=limit" entries, like rest-client.pool.max-per-host
+    @Value("${rest-client.async.max-per-host:}")
+    private String maxPerHost;
+
+    @Value("${rest-client.async.wait-timeout:${rest-client.pool.connection-request-timeout:2000}}")
+    private long waitTimeout;
+
+    private final Map<String, Integer> hostLimits = new HashMap<>();
+    private final Map<String, HostLimit> hosts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        if (maxPerHost == null || maxPerHost.isBlank()) {
+            return;
+        }
+        for (String entry : maxPerHost.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                continue;
+            }
+            hostLimits.put(hostKey(URI.create(parts[0].trim())), Integer.parseInt(parts[1].trim()));
+        }
+    }
+
+    /**
+     * Starts the call once the host of the URI has a free slot; the slot is held until the call completes
+     *
+     * @param uri Request URI
+     * @param call Starts the request
+     * @param <T> Response type
+     * @return Future of the call's result
+     */
+    public <T> CompletableFuture<T> submit(URI uri, Supplier<CompletableFuture<T>> call) {
+        String key = hostKey(uri);
+        HostLimit host = hosts.computeIfAbsent(key, k -> new HostLimit(hostLimits.getOrDefault(k, defaultMaxPerHost)));
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        Runnable start = () -> {
+            CompletableFuture<T> response;
+            try {
+                response = call.get();
+            } catch (RuntimeException e) {
+                host.release();
+                result.completeExceptionally(e);
+                return;
+            }
+            response.whenComplete((value, error) -> {
+                host.release();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        };
+
+        if (host.acquireOrQueue(start)) {
+            start.run();
+        } else if (waitTimeout > 0) {
+            CompletableFuture.delayedExecutor(waitTimeout, TimeUnit.MILLISECONDS).execute(() -> {
+                if (host.dequeue(start)) {
+                    log.warn("Timeout waiting for a free slot of {}", key);
+                    result.completeExceptionally(new HostLimitExceededException(key, waitTimeout));
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Returns how many requests to the host of the URI may be in flight at once
+     */
+    public int getLimit(URI uri) {
+        return Math.max(hostLimits.getOrDefault(hostKey(uri), defaultMaxPerHost), 1);
+    }
+
+    /**
+     * Returns in-flight and waiting request counts per host
+     */
+    public Map<String, Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> status = new HashMap<>();
+        hosts.forEach((key, host) -> status.put(key, host.toMap()));
+        return status;
+    }
+
+    private String hostKey(URI uri) {
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+        return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+    }
+
+    /**
+     * In-flight requests of one host and the requests waiting for a slot
+     */
+    private static class HostLimit {
+        private final int max;
+        private int active;
+        private final Deque<Runnable> waiting = new ArrayDeque<>();
+
+        HostLimit(int max) {
+            this.max = Math.max(max, 1);
+        }
+
+        synchronized boolean acquireOrQueue(Runnable start) {
+            if (active < max) {
+                active++;
+                return true;
+            }
+            waiting.addLast(start);
+            return false;
+        }
+
+        synchronized boolean dequeue(Runnable start) {
+            return waiting.remove(start);
+        }
+
+        void release() {
+            Runnable next;
+            synchronized (this) {
+                next = waiting.pollFirst();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+            }
+            // The slot passes to the next waiting request
+            next.run();
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("inFlight", active);
+            map.put("waiting", waiting.size());
+            map.put("max", max);
+            return map;
+        }
+    }
+}
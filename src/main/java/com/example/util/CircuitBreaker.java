@@ -0,0 +1,145 @@
+package com.example.util;
+
+import com.example.exception.CircuitBreakerOpenException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Count-based circuit breaker of a single endpoint.
+ * The outcomes of the last windowSize calls are kept in a ring buffer; once at least minimumCalls are recorded
+ * and the failure rate reaches the threshold the breaker opens and rejects calls for openDuration.
+ * It then lets halfOpenCalls trial calls through: all succeeding closes it, any failure opens it again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String endpoint;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openDuration;
+    private final int halfOpenCalls;
+
+    private final boolean[] window;
+    private int windowPosition;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String endpoint, int windowSize, int minimumCalls, int failureRateThreshold,
+                          long openDuration, int halfOpenCalls) {
+        this.endpoint = endpoint;
+        this.window = new boolean[Math.max(windowSize, 1)];
+        this.minimumCalls = Math.max(Math.min(minimumCalls, window.length), 1);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = Math.max(halfOpenCalls, 1);
+    }
+
+    /**
+     * Reserves permission for a call.
+     *
+     * @throws CircuitBreakerOpenException If the breaker is open, or half-open with all trial calls in progress
+     */
+    public synchronized void acquirePermission() {
+        if (state == State.OPEN) {
+            long remaining = openedAt + openDuration - System.currentTimeMillis();
+            if (remaining > 0) {
+                throw new CircuitBreakerOpenException(endpoint, remaining);
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits <= 0) {
+                throw new CircuitBreakerOpenException(endpoint, openDuration);
+            }
+            halfOpenPermits--;
+        }
+    }
+
+    /**
+     * Returns the permission of a call that was not made, e.g. rejected by a local limit, without recording an outcome
+     */
+    public synchronized void onNotCalled() {
+        if (state == State.HALF_OPEN) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recordedCalls >= minimumCalls
+                && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("state", state);
+        status.put("recordedCalls", recordedCalls);
+        status.put("failedCalls", failedCalls);
+        if (state == State.OPEN) {
+            status.put("remainingOpenMillis", Math.max(0, openedAt + openDuration - System.currentTimeMillis()));
+        }
+        return status;
+    }
+
+    private void record(boolean failure) {
+        if (recordedCalls == window.length) {
+            if (window[windowPosition]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            failedCalls++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+    }
+
+    private void transitionTo(State newState) {
+        log.warn("Circuit breaker for {} changed from {} to {}", endpoint, state, newState);
+        state = newState;
+        switch (newState) {
+            case OPEN -> openedAt = System.currentTimeMillis();
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> {
+                windowPosition = 0;
+                recordedCalls = 0;
+                failedCalls = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.util;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Circuit breakers of partner API endpoints.
+ * Endpoints are identified by scheme, host, port and path, so query parameters do not create separate breakers.
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    @Value("${circuit-breaker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${circuit-breaker.open-duration:30000}")
+    private long openDuration;
+
+    @Value("${circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the breaker of an endpoint URL, or null if circuit breaking is disabled
+     */
+    public CircuitBreaker forUrl(String url) {
+        if (!enabled || url == null) {
+            return null;
+        }
+        return breakers.computeIfAbsent(endpointKey(url), key -> new CircuitBreaker(
+                key, slidingWindowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls));
+    }
+
+    /**
+     * Returns the state of all breakers by endpoint
+     */
+    public Map<String, Map<String, Object>> getStatus() {
+        Map<String, Map<String, Object>> status = new HashMap<>();
+        breakers.forEach((endpoint, breaker) -> status.put(endpoint, breaker.getStatus()));
+        return status;
+    }
+
+    private String endpointKey(String url) {
+        try {
+            URI uri = URI.create(url);
+            if (uri.getHost() == null) {
+                return url;
+            }
+            return uri.getScheme() + "://" + uri.getHost() + (uri.getPort() > 0 ? ":" + uri.getPort() : "")
+                    + (uri.getPath() != null ? uri.getPath() : "");
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Pre-parsed ${variable} template.
+ * The template is split once into literal segments and placeholder slots, so rendering is a single pass
+ * over the template regardless of how many variables are available.
+ * Values placed inside a JSON string literal are JSON-escaped; values outside string literals are written as is,
+ * except maps and collections which are written as JSON.
+ */
+public final class CompiledTemplate {
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String source;
+    private final List<Segment> segments;
+    private final int literalLength;
+
+    private CompiledTemplate(String source, List<Segment> segments, int literalLength) {
+        this.source = source;
+        this.segments = segments;
+        this.literalLength = literalLength;
+    }
+
+    /**
+     * Parses a template.
+     *
+     * @param template Template text, may be null
+     * @return Compiled template, or null if template is null
+     */
+    public static CompiledTemplate compile(String template) {
+        if (template == null) {
+            return null;
+        }
+
+        List<Segment> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int literalLength = 0;
+        boolean inString = false;
+        int i = 0;
+
+        while (i < template.length()) {
+            char c = template.charAt(i);
+
+            if (c == '$' && i + 1 < template.length() && template.charAt(i + 1) == '{') {
+                int end = template.indexOf('}', i + 2);
+                if (end > 0) {
+                    if (literal.length() > 0) {
+                        segments.add(Segment.literal(literal.toString()));
+                        literalLength += literal.length();
+                        literal.setLength(0);
+                    }
+                    segments.add(Segment.placeholder(template.substring(i + 2, end), template.substring(i, end + 1), inString));
+                    i = end + 1;
+                    continue;
+                }
+            }
+
+            if (c == '"') {
+                inString = !inString;
+            } else if (c == '\\' && inString && i + 1 < template.length()) {
+                // Keep escaped characters (including \") inside the literal
+                literal.append(c).append(template.charAt(i + 1));
+                i += 2;
+                continue;
+            }
+
+            literal.append(c);
+            i++;
+        }
+
+        if (literal.length() > 0) {
+            segments.add(Segment.literal(literal.toString()));
+            literalLength += literal.length();
+        }
+
+        return new CompiledTemplate(template, List.copyOf(segments), literalLength);
+    }
+
+    /**
+     * Returns the original template text
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the names of all variables referenced by the template
+     */
+    public List<String> getVariableNames() {
+        List<String> names = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment.variableName != null && !names.contains(segment.variableName)) {
+                names.add(segment.variableName);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Renders the template.
+     * Placeholders without a matching variable are left untouched, null values render as an empty string.
+     *
+     * @param variables Variables to substitute
+     * @param jsonWriter Serializer for map and collection values
+     * @return Rendered text
+     */
+    public String render(Map<String, Object> variables, Function<Object, String> jsonWriter) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        buffer.ensureCapacity(literalLength + 16 * segments.size());
+
+        try {
+            for (Segment segment : segments) {
+                if (segment.variableName == null) {
+                    buffer.append(segment.text);
+                } else if (!variables.containsKey(segment.variableName)) {
+                    buffer.append(segment.text);
+                } else {
+                    appendValue(buffer, variables.get(segment.variableName), segment.quoted, jsonWriter);
+                }
+            }
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                BUFFER.remove();
+            }
+        }
+    }
+
+    private static void appendValue(StringBuilder buffer, Object value, boolean quoted, Function<Object, String> jsonWriter) {
+        if (value == null) {
+            return;
+        }
+
+        String text = value instanceof Map || value instanceof Collection
+                ? jsonWriter.apply(value)
+                : value.toString();
+
+        if (quoted) {
+            appendEscaped(buffer, text);
+        } else {
+            buffer.append(text);
+        }
+    }
+
+    /**
+     * Appends text escaped for use inside a JSON string literal
+     */
+    private static void appendEscaped(StringBuilder buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> buffer.append("\\\"");
+                case '\\' -> buffer.append("\\\\");
+                case '\n' -> buffer.append("\\n");
+                case '\r' -> buffer.append("\\r");
+                case '\t' -> buffer.append("\\t");
+                case '\b' -> buffer.append("\\b");
+                case '\f' -> buffer.append("\\f");
+                default -> {
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Literal text or a placeholder slot
+     */
+    private static final class Segment {
+        private final String text;
+        private final String variableName;
+        private final boolean quoted;
+
+        private Segment(String text, String variableName, boolean quoted) {
+            this.text = text;
+            this.variableName = variableName;
+            this.quoted = quoted;
+        }
+
+        static Segment literal(String text) {
+            return new Segment(text, null, false);
+        }
+
+        static Segment placeholder(String variableName, String text, boolean quoted) {
+            return new Segment(text, variableName, quoted);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.util;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiled set of JSON source paths ("data.items[0].id" or "data.items.0.id") and the variables they map to.
+ * Extraction streams over the document once: subtrees no path points into are skipped without being built,
+ * only the values at the end of a path are materialized, and parsing stops as soon as every path is resolved.
+ */
+public final class JsonPathTree {
+
+    private final Node root;
+    private final int leafCount;
+
+    private JsonPathTree(Node root, int leafCount) {
+        this.root = root;
+        this.leafCount = leafCount;
+    }
+
+    /**
+     * Compiles a mapping of target variable names to source path segments.
+     *
+     * @param paths Target variable name -> source path segments, may be null
+     * @return Compiled tree, or null if paths is null
+     */
+    public static JsonPathTree compile(Map<String, String[]> paths) {
+        if (paths == null) {
+            return null;
+        }
+
+        Node root = new Node();
+        int leafCount = 0;
+        for (Map.Entry<String, String[]> path : paths.entrySet()) {
+            Node node = root;
+            for (String segment : path.getValue()) {
+                for (String key : splitIndexes(segment)) {
+                    node = node.children.computeIfAbsent(key, k -> new Node());
+                }
+            }
+            if (node.targets.isEmpty()) {
+                leafCount++;
+            }
+            node.targets.add(path.getKey());
+        }
+        return new JsonPathTree(root, leafCount);
+    }
+
+    /**
+     * Extracts the mapped values from a parser positioned before the document.
+     * Paths that are missing or resolve to null are left out of the result.
+     *
+     * @param parser Parser with an object codec
+     * @return Target variable name -> value
+     */
+    public Map<String, Object> extract(JsonParser parser) throws IOException {
+        Map<String, Object> result = new HashMap<>();
+        if (parser.nextToken() != null) {
+            visit(parser, root, result, new int[]{leafCount});
+        }
+        return result;
+    }
+
+    /**
+     * Walks the current value; remaining[0] counts leaves not reached yet
+     */
+    private static void visit(JsonParser parser, Node node, Map<String, Object> result, int[] remaining) throws IOException {
+        if (!node.targets.isEmpty()) {
+            Object value = parser.readValueAs(Object.class);
+            remaining[0]--;
+            if (value != null) {
+                node.targets.forEach(target -> result.put(target, value));
+            }
+            if (!node.children.isEmpty()) {
+                visitMaterialized(value, node, result, remaining);
+            }
+            return;
+        }
+
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            while (remaining[0] > 0 && parser.nextToken() == JsonToken.FIELD_NAME) {
+                Node child = node.children.get(parser.getCurrentName());
+                parser.nextToken();
+                if (child != null) {
+                    visit(parser, child, result, remaining);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } else if (token == JsonToken.START_ARRAY) {
+            int index = 0;
+            while (remaining[0] > 0 && parser.nextToken() != JsonToken.END_ARRAY) {
+                Node child = node.children.get(String.valueOf(index++));
+                if (child != null) {
+                    visit(parser, child, result, remaining);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves paths below a value that was already materialized for a shorter path
+     */
+    @SuppressWarnings("unchecked")
+    private static void visitMaterialized(Object value, Node node, Map<String, Object> result, int[] remaining) {
+        node.children.forEach((key, child) -> {
+            Object childValue = null;
+            if (value instanceof Map) {
+                childValue = ((Map<String, Object>) value).get(key);
+            } else if (value instanceof List<?> list && isIndex(key) && Integer.parseInt(key) < list.size()) {
+                childValue = list.get(Integer.parseInt(key));
+            }
+
+            if (!child.targets.isEmpty()) {
+                remaining[0]--;
+                if (childValue != null) {
+                    Object resolved = childValue;
+                    child.targets.forEach(target -> result.put(target, resolved));
+                }
+            }
+            visitMaterialized(childValue, child, result, remaining);
+        });
+    }
+
+    /**
+     * Splits "items[0][1]" into "items", "0", "1"
+     */
+    private static List<String> splitIndexes(String segment) {
+        List<String> keys = new ArrayList<>();
+        int bracket = segment.indexOf('[');
+        if (bracket < 0 || !segment.endsWith("]")) {
+            keys.add(segment);
+            return keys;
+        }
+
+        if (bracket > 0) {
+            keys.add(segment.substring(0, bracket));
+        }
+        for (String index : segment.substring(bracket + 1, segment.length() - 1).split("\\]\\[")) {
+            keys.add(index.trim());
+        }
+        return keys;
+    }
+
+    private static boolean isIndex(String key) {
+        return !key.isEmpty() && key.length() < 10 && key.chars().allMatch(Character::isDigit);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<String> targets = new ArrayList<>(1);
+    }
+}
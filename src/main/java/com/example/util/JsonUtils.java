@@ -1,15 +1,24 @@
 package com.example.util;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Central JSON processing utility class.
@@ -19,8 +28,22 @@ import java.util.Map;
 @Component
 @RequiredArgsConstructor
 public class JsonUtils {
+    private static final JsonSchemaFactory SCHEMA_FACTORY = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V4);
+
     private final ObjectMapper objectMapper;
 
+    @Value("${json.schema-cache.max-size:256}")
+    private int schemaCacheMaxSize;
+
+    // Compiled schemas, least recently used entries are evicted beyond schemaCacheMaxSize
+    private final Map<String, JsonSchema> schemaCache = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, JsonSchema> eldest) {
+                    return size() > schemaCacheMaxSize;
+                }
+            });
+
     /**
      * Converts JSON string to specified class type.
      *
@@ -56,6 +79,38 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * Extracts the values of compiled paths from a JSON string without building the whole document.
+     *
+     * @param json JSON string
+     * @param paths Compiled source paths
+     * @return Target variable name -> value
+     */
+    public Map<String, Object> extractPaths(String json, JsonPathTree paths) {
+        try (JsonParser parser = objectMapper.createParser(json)) {
+            return paths.extract(parser);
+        } catch (IOException e) {
+            log.error("JSON path extraction failed: {}", e.getMessage(), e);
+            throw new RuntimeException("JSON conversion error", e);
+        }
+    }
+
+    /**
+     * Extracts the values of compiled paths from an already parsed JSON tree.
+     *
+     * @param json JSON tree
+     * @param paths Compiled source paths
+     * @return Target variable name -> value
+     */
+    public Map<String, Object> extractPaths(JsonNode json, JsonPathTree paths) {
+        try (JsonParser parser = objectMapper.treeAsTokens(json)) {
+            return paths.extract(parser);
+        } catch (IOException e) {
+            log.error("JSON path extraction failed: {}", e.getMessage(), e);
+            throw new RuntimeException("JSON conversion error", e);
+        }
+    }
+
     /**
      * Converts JSON string to Map<String, Object> type.
      *
@@ -149,13 +204,32 @@ public class JsonUtils {
      * @throws RuntimeException If validation fails
      */
     public void validateJsonSchema(String json, String schema) {
+        validateJsonSchema(toJsonNode(json), null, schema);
+    }
+
+    /**
+     * Validates an already parsed JSON tree against specified schema.
+     * The compiled schema is cached under schemaKey, or under the schema text itself when no key is given.
+     *
+     * @param jsonNode JSON tree to validate
+     * @param schemaKey Cache key of the schema (e.g. mapping id and version), may be null
+     * @param schema JSON schema string
+     * @throws RuntimeException If validation fails
+     */
+    public void validateJsonSchema(JsonNode jsonNode, String schemaKey, String schema) {
+        validateJsonSchema(jsonNode, getJsonSchema(schemaKey, schema));
+    }
+
+    /**
+     * Validates an already parsed JSON tree against a compiled schema.
+     *
+     * @param jsonNode JSON tree to validate
+     * @param jsonSchema Compiled JSON schema
+     * @throws RuntimeException If validation fails
+     */
+    public void validateJsonSchema(JsonNode jsonNode, JsonSchema jsonSchema) {
         try {
-            com.networknt.schema.JsonSchemaFactory factory = 
-                com.networknt.schema.JsonSchemaFactory.getInstance(com.networknt.schema.SpecVersion.VersionFlag.V4);
-            com.networknt.schema.JsonSchema jsonSchema = factory.getSchema(schema);
-            JsonNode jsonNode = toJsonNode(json);
-            
-            java.util.Set<com.networknt.schema.ValidationMessage> validationResult = jsonSchema.validate(jsonNode);
+            Set<ValidationMessage> validationResult = jsonSchema.validate(jsonNode);
             if (!validationResult.isEmpty()) {
                 throw new RuntimeException("JSON validation failed: " + validationResult);
             }
@@ -164,4 +238,21 @@ public class JsonUtils {
             throw new RuntimeException("Error validating JSON", e);
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Returns the compiled form of a JSON schema, compiling it on first use.
+     *
+     * @param schemaKey Cache key of the schema, may be null
+     * @param schema JSON schema string
+     * @return Compiled schema
+     */
+    public JsonSchema getJsonSchema(String schemaKey, String schema) {
+        String key = schemaKey != null ? schemaKey : schema;
+        JsonSchema jsonSchema = schemaCache.get(key);
+        if (jsonSchema == null) {
+            jsonSchema = SCHEMA_FACTORY.getSchema(schema);
+            schemaCache.put(key, jsonSchema);
+        }
+        return jsonSchema;
+    }
+}
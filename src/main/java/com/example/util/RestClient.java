@@ -1,18 +1,38 @@
 package com.example.util;
 
+import com.example.config.TimeoutAwareHttpRequestFactory;
+import com.example.exception.HostLimitExceededException;
 import com.example.model.common.RestRequestModel;
 import com.example.model.common.RestResponseModel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.UnknownHttpStatusCodeException;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.net.ConnectException;
 import java.net.URI;
+import java.net.http.HttpConnectTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -24,10 +44,29 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class RestClient {
     private final RestTemplate restTemplate;
+    private final java.net.http.HttpClient asyncHttpClient;
+    private final AsyncHostLimiter asyncHostLimiter;
     private final JsonUtils jsonUtils;
 
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(
+            HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE, HttpMethod.TRACE);
+
+    // The server did not process the request, safe to retry for every method
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(408, 429, 503);
+
+    // The request may have reached the upstream service, only retried for idempotent methods
+    private static final Set<Integer> IDEMPOTENT_RETRYABLE_STATUSES = Set.of(502, 504);
+
+    // Headers the JDK client sets itself and refuses from callers
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    @Value("${rest-client.retry.max-delay:30000}")
+    private long maxRetryDelay;
+
     /**
      * Makes a generic REST call.
+     * The request timeout applies to each attempt; failed attempts are retried up to maxRetries times
+     * with exponential backoff and jitter when the failure is retryable, within the request's deadline.
      *
      * @param request REST request model
      * @param <T> Response type
@@ -35,77 +74,237 @@ public class RestClient {
      */
     public <T> RestResponseModel<T> execute(RestRequestModel<T> request) {
         long startTime = System.currentTimeMillis();
-        
+        long deadlineAt = request.getDeadline() > 0 ? startTime + request.getDeadline() : Long.MAX_VALUE;
+        int attempt = 0;
+
+        while (true) {
+            try {
+                return executeOnce(request, startTime, attemptTimeout(request, deadlineAt));
+            } catch (RuntimeException e) {
+                long delay = retryDelay(request, e, ++attempt);
+                if (delay < 0 || System.currentTimeMillis() + delay >= deadlineAt) {
+                    return handleError(request, e, startTime);
+                }
+
+                log.warn("REST request to {} failed (attempt {}/{}), retrying in {}ms: {}",
+                        request.getUrl(), attempt, request.getMaxRetries() + 1, delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return handleError(request, e, startTime);
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes a generic REST call without blocking the calling thread.
+     * Uses the non-blocking HTTP client; timeout, retry and deadline handling match {@link #execute(RestRequestModel)},
+     * backoff delays are scheduled instead of slept. With failOnError the future completes exceptionally.
+     * Requests in flight per host are bounded by {@link AsyncHostLimiter}; a request that times out waiting for a slot
+     * was never sent, it is not retried and always completes exceptionally with HostLimitExceededException.
+     *
+     * @param request REST request model
+     * @param <T> Response type
+     * @return Future of the REST response model
+     */
+    public <T> CompletableFuture<RestResponseModel<T>> executeAsync(RestRequestModel<T> request) {
+        long startTime = System.currentTimeMillis();
+        long deadlineAt = request.getDeadline() > 0 ? startTime + request.getDeadline() : Long.MAX_VALUE;
+        return executeAsync(request, startTime, deadlineAt, 0);
+    }
+
+    private <T> CompletableFuture<RestResponseModel<T>> executeAsync(RestRequestModel<T> request, long startTime,
+                                                                      long deadlineAt, int attempt) {
+        CompletableFuture<RestResponseModel<T>> response;
         try {
-            log.debug("Executing REST request: {}", request);
-            
-            // Create URI
-            URI uri = buildUri(request.getUrl(), request.getQueryParams());
-            
-            // Prepare headers
-            HttpHeaders headers = prepareHeaders(request.getHeaders());
-            
-            // Prepare body
-            Object body = request.getBody();
-            if (body != null && !(body instanceof String) && !body.getClass().isPrimitive()) {
-                body = jsonUtils.toJson(body);
+            response = sendAsync(request, startTime, attemptTimeout(request, deadlineAt));
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        return response.handle((result, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(result);
             }
-            
-            // Create request entity
-            HttpEntity<?> requestEntity = new HttpEntity<>(body, headers);
-            
-            // Make REST call
-            ResponseEntity<T> response;
-            if (request.getResponseType() != null) {
-                response = restTemplate.exchange(
-                        uri,
-                        request.getMethod(),
-                        requestEntity,
-                        request.getResponseType()
-                );
-            } else {
-                // If responseType is not specified, get as String and convert later
-                ResponseEntity<String> stringResponse = restTemplate.exchange(
-                        uri,
-                        request.getMethod(),
-                        requestEntity,
-                        String.class
-                );
-                
-                // Convert String response to desired type
-                T convertedBody = null;
-                if (stringResponse.getBody() != null && request.getResponseType() != null) {
-                    convertedBody = jsonUtils.fromJson(stringResponse.getBody(), request.getResponseType());
-                }
-                
-                response = new ResponseEntity<>(
-                        convertedBody,
-                        stringResponse.getHeaders(),
-                        stringResponse.getStatusCode()
-                );
+
+            RuntimeException e = unwrapAsyncError(error);
+            if (e instanceof HostLimitExceededException) {
+                return CompletableFuture.<RestResponseModel<T>>failedFuture(e);
             }
-            
-            // Convert headers to Map<String, String> format
-            Map<String, String> responseHeaders = response.getHeaders().entrySet().stream()
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            e -> String.join(", ", e.getValue()),
-                            (v1, v2) -> v1
-                    ));
-            
-            long duration = System.currentTimeMillis() - startTime;
-            log.debug("REST request completed in {}ms: {}", duration, response.getStatusCode());
-            
-            return RestResponseModel.success(
-                    response.getStatusCode(),
-                    response.getBody(),
-                    responseHeaders,
-                    duration
+            long delay = retryDelay(request, e, attempt + 1);
+            if (delay < 0 || System.currentTimeMillis() + delay >= deadlineAt) {
+                return CompletableFuture.completedFuture(handleError(request, e, startTime));
+            }
+
+            log.warn("REST request to {} failed (attempt {}/{}), retrying in {}ms: {}",
+                    request.getUrl(), attempt + 1, request.getMaxRetries() + 1, delay, e.getMessage());
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS);
+            return CompletableFuture.runAsync(() -> { }, delayed)
+                    .thenCompose(ignored -> executeAsync(request, startTime, deadlineAt, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    private <T> CompletableFuture<RestResponseModel<T>> sendAsync(RestRequestModel<T> request, long startTime, int timeout) {
+        log.debug("Executing async REST request: {}", request);
+
+        // Prepare body
+        Object body = prepareBody(request.getBody());
+
+        URI uri = buildUri(request.getUrl(), request.getQueryParams());
+        java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(uri)
+                .method(request.getMethod().name(), body instanceof byte[] bytes
+                        ? java.net.http.HttpRequest.BodyPublishers.ofByteArray(bytes)
+                        : body != null
+                        ? java.net.http.HttpRequest.BodyPublishers.ofString(body.toString())
+                        : java.net.http.HttpRequest.BodyPublishers.noBody());
+        if (timeout > 0) {
+            builder.timeout(Duration.ofMillis(timeout));
+        }
+        prepareHeaders(request.getHeaders()).forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+
+        return asyncHostLimiter.submit(uri,
+                        () -> asyncHttpClient.sendAsync(builder.build(), java.net.http.HttpResponse.BodyHandlers.ofString()))
+                .thenApply(response -> toResponseModel(request, response, startTime));
+    }
+
+    private <T> RestResponseModel<T> toResponseModel(RestRequestModel<T> request,
+                                                     java.net.http.HttpResponse<String> response, long startTime) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+
+        int statusCode = response.statusCode();
+        HttpStatus status = HttpStatus.resolve(statusCode);
+        if (statusCode >= 400) {
+            byte[] errorBody = response.body() != null ? response.body().getBytes(StandardCharsets.UTF_8) : null;
+            if (status == null) {
+                throw new UnknownHttpStatusCodeException(statusCode, "", headers, errorBody, StandardCharsets.UTF_8);
+            }
+            throw status.is4xxClientError()
+                    ? HttpClientErrorException.create(status, status.getReasonPhrase(), headers, errorBody, StandardCharsets.UTF_8)
+                    : HttpServerErrorException.create(status, status.getReasonPhrase(), headers, errorBody, StandardCharsets.UTF_8);
+        }
+
+        T body = convertBody(response.body(), request.getResponseType());
+
+        // Convert headers to Map<String, String> format
+        Map<String, String> responseHeaders = headers.entrySet().stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        e -> String.join(", ", e.getValue()),
+                        (v1, v2) -> v1
+                ));
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.debug("Async REST request completed in {}ms: {}", duration, statusCode);
+
+        return RestResponseModel.success(status != null ? status : HttpStatus.OK, body, responseHeaders, duration);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T convertBody(String body, Class<T> responseType) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        if (responseType == null || responseType == String.class) {
+            return (T) body;
+        }
+        return jsonUtils.fromJson(body, responseType);
+    }
+
+    /**
+     * Maps async client failures to the exceptions RestTemplate would have thrown,
+     * so retry and error handling are shared with the blocking path
+     */
+    private RuntimeException unwrapAsyncError(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IOException ioException) {
+            return new ResourceAccessException("I/O error: " + ioException.getMessage(), ioException);
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new IllegalStateException(cause.getMessage(), cause);
+    }
+
+    private <T> RestResponseModel<T> executeOnce(RestRequestModel<T> request, long startTime, int timeout) {
+        log.debug("Executing REST request: {}", request);
+
+        // Create URI
+        URI uri = buildUri(request.getUrl(), request.getQueryParams());
+
+        // Prepare headers
+        HttpHeaders headers = prepareHeaders(request.getHeaders());
+
+        // Prepare body
+        Object body = prepareBody(request.getBody());
+
+        // Create request entity
+        HttpEntity<?> requestEntity = new HttpEntity<>(body, headers);
+
+        // Make REST call
+        ResponseEntity<T> response;
+        if (request.getResponseType() != null) {
+            response = TimeoutAwareHttpRequestFactory.withTimeout(timeout, () -> restTemplate.exchange(
+                    uri,
+                    request.getMethod(),
+                    requestEntity,
+                    request.getResponseType()
+            ));
+        } else {
+            // If responseType is not specified, get as String and convert later
+            ResponseEntity<String> stringResponse = TimeoutAwareHttpRequestFactory.withTimeout(timeout, () -> restTemplate.exchange(
+                    uri,
+                    request.getMethod(),
+                    requestEntity,
+                    String.class
+            ));
+
+            // Convert String response to desired type
+            T convertedBody = null;
+            if (stringResponse.getBody() != null && request.getResponseType() != null) {
+                convertedBody = jsonUtils.fromJson(stringResponse.getBody(), request.getResponseType());
+            }
+
+            response = new ResponseEntity<>(
+                    convertedBody,
+                    stringResponse.getHeaders(),
+                    stringResponse.getStatusCode()
             );
-            
-        } catch (HttpStatusCodeException e) {
+        }
+
+        // Convert headers to Map<String, String> format
+        Map<String, String> responseHeaders = response.getHeaders().entrySet().stream()
+                .collect(Collectors.toMap(
+                        Map.Entry::getKey,
+                        e -> String.join(", ", e.getValue()),
+                        (v1, v2) -> v1
+                ));
+
+        long duration = System.currentTimeMillis() - startTime;
+        log.debug("REST request completed in {}ms: {}", duration, response.getStatusCode());
+
+        return RestResponseModel.success(
+                response.getStatusCode(),
+                response.getBody(),
+                responseHeaders,
+                duration
+        );
+    }
+
+    private <T> RestResponseModel<T> handleError(RestRequestModel<T> request, RuntimeException ex, long startTime) {
+        long duration = System.currentTimeMillis() - startTime;
+
+        if (ex instanceof HttpStatusCodeException e) {
             // HTTP error status (4xx, 5xx)
-            long duration = System.currentTimeMillis() - startTime;
             log.error("REST request failed with status {}: {}", e.getStatusCode(), e.getMessage());
             
             if (request.isFailOnError()) {
@@ -118,10 +317,10 @@ public class RestClient {
                     e,
                     duration
             );
-            
-        } catch (ResourceAccessException e) {
+        }
+
+        if (ex instanceof ResourceAccessException e) {
             // Connection error
-            long duration = System.currentTimeMillis() - startTime;
             log.error("REST connection error: {}", e.getMessage(), e);
             
             if (request.isFailOnError()) {
@@ -134,22 +333,90 @@ public class RestClient {
                     e,
                     duration
             );
-            
-        } catch (Exception e) {
-            // Other errors
-            long duration = System.currentTimeMillis() - startTime;
-            log.error("REST request error: {}", e.getMessage(), e);
-            
-            if (request.isFailOnError()) {
-                throw new RuntimeException("REST request error: " + e.getMessage(), e);
-            }
-            
-            return RestResponseModel.error(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    e.getMessage(),
-                    e,
-                    duration
-            );
+        }
+
+        // Other errors
+        log.error("REST request error: {}", ex.getMessage(), ex);
+        
+        if (request.isFailOnError()) {
+            throw new RuntimeException("REST request error: " + ex.getMessage(), ex);
+        }
+        
+        return RestResponseModel.error(
+                HttpStatus.INTERNAL_SERVER_ERROR,
+                ex.getMessage(),
+                ex,
+                duration
+        );
+    }
+
+    /**
+     * Timeout of the next attempt: the request timeout, shortened to what is left of the deadline
+     */
+    private int attemptTimeout(RestRequestModel<?> request, long deadlineAt) {
+        if (deadlineAt == Long.MAX_VALUE) {
+            return request.getTimeout();
+        }
+
+        long remaining = Math.max(1, deadlineAt - System.currentTimeMillis());
+        return request.getTimeout() > 0
+                ? (int) Math.min(request.getTimeout(), remaining)
+                : (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    /**
+     * Returns how long to wait before retrying a failed attempt, or -1 if it must not be retried.
+     * The delay doubles on every attempt up to rest-client.retry.max-delay, with jitter so that
+     * callers failing together do not retry in lockstep. A Retry-After header takes precedence.
+     */
+    private long retryDelay(RestRequestModel<?> request, RuntimeException e, int attempt) {
+        if (attempt > request.getMaxRetries() || !isRetryable(request.getMethod(), e)) {
+            return -1;
+        }
+
+        Long retryAfter = retryAfter(e);
+        if (retryAfter != null) {
+            return Math.min(retryAfter, maxRetryDelay);
+        }
+
+        long delay = Math.min(maxRetryDelay, (long) Math.max(request.getRetryDelay(), 0) << Math.min(attempt - 1, 20));
+        // Equal jitter: half fixed, half random
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private boolean isRetryable(HttpMethod method, RuntimeException e) {
+        boolean idempotent = method != null && IDEMPOTENT_METHODS.contains(method);
+
+        if (e instanceof HttpStatusCodeException statusException) {
+            int status = statusException.getRawStatusCode();
+            return RETRYABLE_STATUSES.contains(status) || (idempotent && IDEMPOTENT_RETRYABLE_STATUSES.contains(status));
+        }
+
+        if (e instanceof ResourceAccessException) {
+            // Connection could not be established, the request was never sent
+            Throwable cause = e.getCause();
+            return idempotent || cause instanceof ConnectException || cause instanceof ConnectTimeoutException
+                    || cause instanceof HttpConnectTimeoutException;
+        }
+
+        return false;
+    }
+
+    private Long retryAfter(RuntimeException e) {
+        if (!(e instanceof HttpStatusCodeException statusException) || statusException.getResponseHeaders() == null) {
+            return null;
+        }
+
+        String retryAfter = statusException.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null) {
+            return null;
+        }
+
+        try {
+            return Long.parseLong(retryAfter.trim()) * 1000;
+        } catch (NumberFormatException ex) {
+            // HTTP-date form is not supported, fall back to backoff
+            return null;
         }
     }
     
@@ -274,6 +541,19 @@ public class RestClient {
         return builder.build().encode().toUri();
     }
     
+    /**
+     * Serializes the request body to JSON unless it is already a String or pre-serialized bytes.
+     *
+     * @param body Request body
+     * @return Body to send
+     */
+    private Object prepareBody(Object body) {
+        if (body == null || body instanceof String || body instanceof byte[] || body.getClass().isPrimitive()) {
+            return body;
+        }
+        return jsonUtils.toJson(body);
+    }
+    
     /**
      * Prepares HTTP headers.
      *
@@ -0,0 +1,32 @@
+package com.example.util;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Central template rendering class.
+ * Templates are compiled once by their owner (see TaskMappingRegistry) and rendered here.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TemplateEngine {
+    private final JsonUtils jsonUtils;
+
+    /**
+     * Renders a compiled template.
+     *
+     * @param template Compiled template, may be null
+     * @param variables Variables to substitute
+     * @return Rendered text, or null if template is null
+     */
+    public String render(CompiledTemplate template, Map<String, Object> variables) {
+        if (template == null) {
+            return null;
+        }
+        return template.render(variables, jsonUtils::toJson);
+    }
+}